@@ -0,0 +1,65 @@
+package me.grison.jtoml.benchmarks;
+
+import me.grison.jtoml.impl.Toml;
+import me.grison.jtoml.impl.TomlBatch;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading many small files one at a time through {@link Toml#parse(File)} with
+ * {@link Toml#parseAll(java.util.Collection, java.util.concurrent.Executor)}, both on the benchmark thread.
+ *
+ * @author Alexandre Grison
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+    @Param({"1000"})
+    public int files;
+
+    private Path directory;
+    private List<Path> paths;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("jtoml-batch");
+        paths = new ArrayList<>();
+        for (int i = 0; i < files; i++) {
+            Path path = directory.resolve("tenant" + i + ".toml");
+            Files.write(path, Documents.SMALL.content().getBytes(StandardCharsets.UTF_8));
+            paths.add(path);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.walk(directory).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+
+    @Benchmark
+    public List<Toml> oneAtATime() {
+        List<Toml> documents = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            documents.add(Toml.parse(path.toFile()));
+        }
+        return documents;
+    }
+
+    @Benchmark
+    public TomlBatch parseAll() {
+        return Toml.parseAll(paths, Runnable::run);
+    }
+}
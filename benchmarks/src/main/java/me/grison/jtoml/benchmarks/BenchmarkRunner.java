@@ -0,0 +1,23 @@
+package me.grison.jtoml.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler enabled, so that the allocation rate is reported next to the throughput.
+ * <p>
+ * Accepts the same arguments than the JMH command line, for instance:
+ * <code>java -jar target/benchmarks.jar ParseBenchmark -p document=HUGE</code>
+ *
+ * @author Alexandre Grison
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
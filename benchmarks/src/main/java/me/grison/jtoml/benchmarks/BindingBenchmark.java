@@ -0,0 +1,81 @@
+package me.grison.jtoml.benchmarks;
+
+import me.grison.jtoml.Util;
+import me.grison.jtoml.impl.Toml;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link Toml#getAs(String, Class)} with the reflection based binding it replaced, kept here as
+ * {@link #reflectiveGetAs(Toml, String, Class)}, then parsing and binding a document with
+ * {@link Toml#parseAs(java.io.Reader, Class)} rather than with a parse followed by a binding.
+ *
+ * @author Alexandre Grison
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BindingBenchmark {
+    private String content;
+    private Toml toml;
+
+    @Setup
+    public void setup() {
+        content = Documents.MEDIUM.content();
+        toml = Toml.parse(content);
+    }
+
+    @Benchmark
+    public LookupBenchmark.Section getAs() {
+        return toml.getAs("section42", LookupBenchmark.Section.class);
+    }
+
+    @Benchmark
+    public LookupBenchmark.Section reflection() {
+        return reflectiveGetAs(toml, "section42", LookupBenchmark.Section.class);
+    }
+
+    @Benchmark
+    public Config parseThenGetAs() {
+        return Toml.parse(new StringReader(content)).getAs("", Config.class);
+    }
+
+    @Benchmark
+    public Config parseAs() {
+        return Toml.parseAs(new StringReader(content), Config.class);
+    }
+
+    /**
+     * The configuration read from the document: a single one of its sections.
+     */
+    public static class Config {
+        LookupBenchmark.Section section42;
+    }
+
+    /**
+     * The reflection based binding: a new instance, then for each declared field a lookup of its full key and a set
+     * toggling the accessible flag.
+     */
+    static <T> T reflectiveGetAs(Toml toml, String key, Class<T> clazz) {
+        try {
+            T result = clazz.getDeclaredConstructor().newInstance();
+            for (Field f : clazz.getDeclaredFields()) {
+                Class<?> fieldType = f.getType();
+                String fieldName = (key == null || "".equals(key.trim())) ? f.getName() : key + "." + f.getName();
+                Object fieldValue = Util.Reflection.isTomlSupportedType(fieldType) ? //
+                        toml.get(fieldName) : reflectiveGetAs(toml, fieldName, fieldType);
+                Util.Reflection.setFieldValue(f, result, fieldValue);
+            }
+            return result;
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("Could not map value of key `" + key + //
+                    "` to Object of class `" + clazz.getName() + "`.", e);
+        }
+    }
+}
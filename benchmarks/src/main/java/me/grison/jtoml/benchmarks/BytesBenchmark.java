@@ -0,0 +1,51 @@
+package me.grison.jtoml.benchmarks;
+
+import me.grison.jtoml.impl.Toml;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing UTF-8 bytes, such as message payloads, once decoded to a String with parsing them directly, from
+ * a byte array or from a direct buffer.
+ *
+ * @author Alexandre Grison
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BytesBenchmark {
+    @Param({"SMALL", "MEDIUM"})
+    public Documents document;
+
+    private byte[] bytes;
+    private ByteBuffer direct;
+
+    @Setup
+    public void setup() {
+        bytes = document.content().getBytes(StandardCharsets.UTF_8);
+        direct = ByteBuffer.allocateDirect(bytes.length);
+        ((Buffer) direct.put(bytes)).flip();
+    }
+
+    @Benchmark
+    public Toml decodeThenParse() {
+        return Toml.parse(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Toml parseBytes() {
+        return Toml.parse(bytes);
+    }
+
+    @Benchmark
+    public Toml parseDirectBuffer() {
+        return Toml.parse(direct);
+    }
+}
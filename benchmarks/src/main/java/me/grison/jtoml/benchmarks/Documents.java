@@ -0,0 +1,83 @@
+package me.grison.jtoml.benchmarks;
+
+/**
+ * Synthetic TOML documents used by the benchmarks.
+ * <p>
+ * Every document is made of top-level tables having nested sub-tables, long arrays and multi-line strings, and can be
+ * parsed by every built-in parser.
+ *
+ * @author Alexandre Grison
+ */
+public enum Documents {
+    /**
+     * About 2 KB.
+     */
+    SMALL(4, 8),
+    /**
+     * About 200 KB.
+     */
+    MEDIUM(200, 64),
+    /**
+     * About 4 MB.
+     */
+    HUGE(2000, 512);
+
+    private final int tables;
+    private final int arrayLength;
+    private String content;
+
+    Documents(int tables, int arrayLength) {
+        this.tables = tables;
+        this.arrayLength = arrayLength;
+    }
+
+    /**
+     * Returns the number of top-level tables in this document.
+     *
+     * @return the number of tables
+     */
+    public int tables() {
+        return tables;
+    }
+
+    /**
+     * Returns the TOML content of this document, generated once.
+     *
+     * @return the TOML String
+     */
+    public synchronized String content() {
+        if (content == null) {
+            content = generate();
+        }
+        return content;
+    }
+
+    private String generate() {
+        StringBuilder b = new StringBuilder("# Synthetic document\ntitle = \"Benchmark document\"\n\n");
+        for (int t = 0; t < tables; t++) {
+            b.append("[section").append(t).append("]\n")
+                    .append("name = \"section ").append(t).append("\"\n")
+                    .append("enabled = ").append(t % 2 == 0).append('\n')
+                    .append("ratio = ").append(t).append(".25\n")
+                    .append("count = ").append(t * 31L).append(" # a comment\n")
+                    .append("created = 1979-05-27T07:32:00Z\n")
+                    .append("ports = [ ");
+            for (int i = 0; i < arrayLength; i++) {
+                b.append(i == 0 ? "" : ", ").append(8000 + i);
+            }
+            b.append(" ]\n")
+                    .append("hosts = [ \"alpha\", \"beta\", \"gamma\", \"delta\" ]\n")
+                    .append("description = \"\"\"\nSection ").append(t).append(" of the benchmark document.\n")
+                    .append("It spans several lines.\n\"\"\"\n")
+                    .append("path = 'C:\\Users\\section").append(t).append("'\n\n");
+            b.append("[section").append(t).append(".level1]\n")
+                    .append("depth = 1\n\n")
+                    .append("[section").append(t).append(".level1.level2]\n")
+                    .append("depth = 2\n\n")
+                    .append("[section").append(t).append(".level1.level2.level3]\n")
+                    .append("depth = 3\n")
+                    .append("matrix = [ [1, 2, 3], [4, 5, 6] ]\n\n");
+        }
+        return b.toString();
+    }
+}
@@ -0,0 +1,69 @@
+package me.grison.jtoml.benchmarks;
+
+import me.grison.jtoml.impl.Toml;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures key lookups and object mapping on an already parsed document.
+ *
+ * @author Alexandre Grison
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LookupBenchmark {
+    private Toml toml;
+
+    @Setup
+    public void setup() {
+        toml = Toml.parse(Documents.MEDIUM.content());
+    }
+
+    @Benchmark
+    public Object getTopLevel() {
+        return toml.get("title");
+    }
+
+    @Benchmark
+    public Boolean getNested() {
+        return toml.getBoolean("section42.enabled");
+    }
+
+    @Benchmark
+    public Long getDeep() {
+        return toml.getLong("section42.level1.level2.level3.depth");
+    }
+
+    @Benchmark
+    public Section getAs() {
+        return toml.getAs("section42", Section.class);
+    }
+
+    /**
+     * Mapped to a <code>[sectionN]</code> table.
+     */
+    public static class Section {
+        String name;
+        Boolean enabled;
+        Double ratio;
+        Long count;
+        List<Object> ports;
+        String description;
+        Level1 level1;
+    }
+
+    public static class Level1 {
+        Long depth;
+        Level2 level2;
+    }
+
+    public static class Level2 {
+        Long depth;
+    }
+}
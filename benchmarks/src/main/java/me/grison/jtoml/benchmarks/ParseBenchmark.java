@@ -0,0 +1,43 @@
+package me.grison.jtoml.benchmarks;
+
+import me.grison.jtoml.TomlParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares every built-in {@link TomlParser} on documents of different sizes.
+ * <p>
+ * Other implementations can be compared by giving their class name: <code>-p parser=com.acme.MyTomlParser</code>.
+ *
+ * @author Alexandre Grison
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+    @Param({"me.grison.jtoml.impl.SimpleTomlParser", "me.grison.jtoml.impl.SinglePassTomlParser", "me.grison.jtoml.impl.LazyTomlParser",
+            "me.grison.jtoml.impl.ParallelTomlParser"})
+    public String parser;
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    public Documents document;
+
+    private TomlParser tomlParser;
+    private String content;
+
+    @Setup
+    public void setup() throws Exception {
+        tomlParser = (TomlParser) Class.forName(parser).newInstance();
+        content = document.content();
+    }
+
+    @Benchmark
+    public Map<String, Object> parse() {
+        return tomlParser.parse(content);
+    }
+}
@@ -0,0 +1,52 @@
+package me.grison.jtoml.benchmarks;
+
+import me.grison.jtoml.impl.SinglePassTomlParser;
+import me.grison.jtoml.impl.TomlParseContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link SinglePassTomlParser} recycling the buffers of the current thread or of an explicit
+ * {@link TomlParseContext}, with the same parser given a new context for every parse.
+ * Run with the GC profiler (see {@link BenchmarkRunner}) to compare the bytes allocated per parse.
+ *
+ * @author Alexandre Grison
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ParseContextBenchmark {
+    @Param({"SMALL"})
+    public Documents document;
+
+    private String content;
+    private SinglePassTomlParser parser;
+    private TomlParseContext context;
+
+    @Setup
+    public void setup() {
+        content = document.content();
+        parser = new SinglePassTomlParser();
+        context = new TomlParseContext();
+    }
+
+    @Benchmark
+    public Map<String, Object> newContext() {
+        return parser.parse(content, new TomlParseContext());
+    }
+
+    @Benchmark
+    public Map<String, Object> threadContext() {
+        return parser.parse(content);
+    }
+
+    @Benchmark
+    public Map<String, Object> explicitContext() {
+        return parser.parse(content, context);
+    }
+}
@@ -0,0 +1,42 @@
+package me.grison.jtoml.benchmarks;
+
+import me.grison.jtoml.impl.Toml;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing again a whole document after a one-line edit with {@link Toml#reparse(Toml, String)}.
+ *
+ * @author Alexandre Grison
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReparseBenchmark {
+    @Param({"MEDIUM", "HUGE"})
+    public Documents document;
+
+    private Toml previous;
+    private String edited;
+
+    @Setup
+    public void setup() {
+        String content = document.content();
+        previous = Toml.reparse(null, content);
+        edited = content.replace("name = \"section 1\"", "name = \"section one\"");
+    }
+
+    @Benchmark
+    public Toml parse() {
+        return Toml.parse(edited);
+    }
+
+    @Benchmark
+    public Toml reparse() {
+        return Toml.reparse(previous, edited);
+    }
+}
@@ -0,0 +1,64 @@
+package me.grison.jtoml.benchmarks;
+
+import me.grison.jtoml.impl.Toml;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serialization of a parsed document and of a custom object.
+ *
+ * @author Alexandre Grison
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializeBenchmark {
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    public Documents document;
+
+    private static final Writer NULL_WRITER = new Writer() {
+        @Override
+        public void write(char[] buffer, int off, int len) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private Toml toml;
+    private LookupBenchmark.Section section;
+
+    @Setup
+    public void setup() {
+        toml = Toml.parse(document.content());
+        section = toml.getAs("section0", LookupBenchmark.Section.class);
+    }
+
+    @Benchmark
+    public String serializeDocument() {
+        return toml.serialize();
+    }
+
+    /**
+     * Serializes to a Writer discarding everything, which only leaves the cost of producing the TOML.
+     */
+    @Benchmark
+    public void serializeDocumentToWriter() {
+        toml.serialize(NULL_WRITER);
+    }
+
+    @Benchmark
+    public String serializeObject() {
+        return Toml.serialize("section", section);
+    }
+}
@@ -0,0 +1,62 @@
+package me.grison.jtoml.benchmarks;
+
+import me.grison.jtoml.impl.SimpleTomlParser;
+import me.grison.jtoml.impl.Toml;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading a configuration file and reading one of its keys, by parsing the file or by loading its snapshot
+ * with {@link Toml#loadSnapshot(Path)}.
+ *
+ * @author Alexandre Grison
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+    @Param({"MEDIUM", "HUGE"})
+    public Documents document;
+
+    private Path directory;
+    private Path source;
+    private Path snapshot;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("jtoml-snapshot");
+        source = Files.write(directory.resolve("config.toml"), document.content().getBytes(StandardCharsets.UTF_8));
+        snapshot = directory.resolve("config.toml.snapshot");
+        Toml.parse(source).writeSnapshot(snapshot, source);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.walk(directory).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+
+    @Benchmark
+    public String parseSimple() {
+        return Toml.parse(source, new SimpleTomlParser()).getString("section1.name");
+    }
+
+    @Benchmark
+    public String parse() {
+        return Toml.parse(source).getString("section1.name");
+    }
+
+    @Benchmark
+    public String loadSnapshot() {
+        return Toml.loadSnapshot(snapshot).getString("section1.name");
+    }
+}
@@ -0,0 +1,56 @@
+package me.grison.jtoml.benchmarks;
+
+import me.grison.jtoml.TomlParser;
+import me.grison.jtoml.impl.BoundedStringPool;
+import me.grison.jtoml.impl.SinglePassTomlParser;
+import me.grison.jtoml.impl.WeakStringPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link SinglePassTomlParser} creating a String for each key and String value with the same parser
+ * taking them from a per-parse {@link BoundedStringPool}, alone or backed by a process-wide {@link WeakStringPool}.
+ *
+ * @author Alexandre Grison
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StringPoolBenchmark {
+    @Param({"MEDIUM"})
+    public Documents document;
+
+    private String content;
+    private TomlParser noPool;
+    private TomlParser perParse;
+    private TomlParser shared;
+
+    @Setup
+    public void setup() {
+        content = document.content();
+        noPool = new SinglePassTomlParser();
+        perParse = new SinglePassTomlParser(() -> new BoundedStringPool(1024, 32));
+        WeakStringPool pool = new WeakStringPool(100_000, 32);
+        shared = new SinglePassTomlParser(() -> new BoundedStringPool(1024, 32, pool));
+    }
+
+    @Benchmark
+    public Map<String, Object> noPool() {
+        return noPool.parse(content);
+    }
+
+    @Benchmark
+    public Map<String, Object> perParsePool() {
+        return perParse.parse(content);
+    }
+
+    @Benchmark
+    public Map<String, Object> sharedPool() {
+        return shared.parse(content);
+    }
+}
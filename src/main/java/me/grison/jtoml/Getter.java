@@ -1,5 +1,9 @@
 package me.grison.jtoml;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Map;
@@ -43,15 +47,59 @@ public interface Getter {
     Double getDouble(String key);
 
     /**
-     * Get the date (as Calendar)
+     * Get the date (as Calendar), local date-times and local dates being considered in the default time zone.
      *
      * @param key the key where the object is located
      * @return the date located at the given key.
      */
     Calendar getDate(String key);
 
+    /**
+     * Get the offset date-time.
+     *
+     * @param key the key where the object is located
+     * @return the offset date-time located at the given key.
+     */
+    default OffsetDateTime getOffsetDateTime(String key) {
+        return (OffsetDateTime) get(key);
+    }
+
+    /**
+     * Get the local date-time.
+     *
+     * @param key the key where the object is located
+     * @return the local date-time located at the given key.
+     */
+    default LocalDateTime getLocalDateTime(String key) {
+        return (LocalDateTime) get(key);
+    }
+
+    /**
+     * Get the local date.
+     *
+     * @param key the key where the object is located
+     * @return the local date located at the given key.
+     */
+    default LocalDate getLocalDate(String key) {
+        return (LocalDate) get(key);
+    }
+
+    /**
+     * Get the local time.
+     *
+     * @param key the key where the object is located
+     * @return the local time located at the given key.
+     */
+    default LocalTime getLocalTime(String key) {
+        return (LocalTime) get(key);
+    }
+
     /**
      * Get the list.
+     * <p>
+     * Arrays of longs, doubles and booleans read by the built-in parsers are read-only lists backed by primitive
+     * arrays: <code>add</code> and <code>set</code> throw an <code>UnsupportedOperationException</code>, copy them
+     * (<code>new ArrayList&lt;&gt;(list)</code>) to modify them.
      *
      * @param key the key where the object is located
      * @return the list located at the given key.
@@ -74,6 +122,36 @@ public interface Getter {
      */
     Map<String, Object> getMap(String key);
 
+    /**
+     * Get an array of longs.
+     *
+     * @param key the key where the object is located
+     * @return the longs located at the given key.
+     */
+    default long[] getLongArray(String key) {
+        return Getters.longs(getList(key));
+    }
+
+    /**
+     * Get an array of doubles.
+     *
+     * @param key the key where the object is located
+     * @return the doubles located at the given key.
+     */
+    default double[] getDoubleArray(String key) {
+        return Getters.doubles(getList(key));
+    }
+
+    /**
+     * Get an array of booleans.
+     *
+     * @param key the key where the object is located
+     * @return the booleans located at the given key.
+     */
+    default boolean[] getBooleanArray(String key) {
+        return Getters.booleans(getList(key));
+    }
+
     /**
      * Get an object of a specific class.
      *
@@ -83,4 +161,159 @@ public interface Getter {
      * @return the object located at the given key.
      */
     <T> T getAs(String key, Class<T> clazz);
+
+    /**
+     * Get the object.
+     * <p>
+     * By default, a path whose keys contain dots is looked up key by key from the root table returned by
+     * <code>getMap("")</code>, and any other path through its dotted key.
+     *
+     * @param path the path where the object is located
+     * @return the object located at the given path.
+     */
+    default Object get(TomlPath path) {
+        return path.splitsBack() ? get(path.toString()) : Getters.find(this, path);
+    }
+
+    /**
+     * Get the string.
+     *
+     * @param path the path where the object is located
+     * @return the string located at the given path.
+     */
+    default String getString(TomlPath path) {
+        return path.splitsBack() ? getString(path.toString()) : (String) get(path);
+    }
+
+    /**
+     * Get the Long value.
+     *
+     * @param path the path where the object is located
+     * @return the long located at the given path.
+     */
+    default Long getLong(TomlPath path) {
+        return path.splitsBack() ? getLong(path.toString()) : (Long) get(path);
+    }
+
+    /**
+     * Get the double value.
+     *
+     * @param path the path where the object is located
+     * @return the float located at the given path.
+     */
+    default Double getDouble(TomlPath path) {
+        return path.splitsBack() ? getDouble(path.toString()) : (Double) get(path);
+    }
+
+    /**
+     * Get the date (as Calendar)
+     *
+     * @param path the path where the object is located
+     * @return the date located at the given path.
+     */
+    default Calendar getDate(TomlPath path) {
+        return path.splitsBack() ? getDate(path.toString()) : (Calendar) get(path);
+    }
+
+    /**
+     * Get the list.
+     *
+     * @param path the path where the object is located
+     * @return the list located at the given path.
+     */
+    @SuppressWarnings("unchecked")
+    default List<Object> getList(TomlPath path) {
+        return path.splitsBack() ? getList(path.toString()) : (List<Object>) get(path);
+    }
+
+    /**
+     * Get a boolean.
+     *
+     * @param path the path where the object is located
+     * @return the boolean located at the given path.
+     */
+    default Boolean getBoolean(TomlPath path) {
+        return path.splitsBack() ? getBoolean(path.toString()) : (Boolean) get(path);
+    }
+
+    /**
+     * Get a Map.
+     *
+     * @param path the path where the object is located
+     * @return the map located at the given path.
+     */
+    @SuppressWarnings("unchecked")
+    default Map<String, Object> getMap(TomlPath path) {
+        return path.splitsBack() ? getMap(path.toString()) : (Map<String, Object>) get(path);
+    }
+
+    /**
+     * Get an array of longs.
+     *
+     * @param path the path where the object is located
+     * @return the longs located at the given path.
+     */
+    default long[] getLongArray(TomlPath path) {
+        return path.splitsBack() ? getLongArray(path.toString()) : Getters.longs(getList(path));
+    }
+
+    /**
+     * Get an array of doubles.
+     *
+     * @param path the path where the object is located
+     * @return the doubles located at the given path.
+     */
+    default double[] getDoubleArray(TomlPath path) {
+        return path.splitsBack() ? getDoubleArray(path.toString()) : Getters.doubles(getList(path));
+    }
+
+    /**
+     * Get an array of booleans.
+     *
+     * @param path the path where the object is located
+     * @return the booleans located at the given path.
+     */
+    default boolean[] getBooleanArray(TomlPath path) {
+        return path.splitsBack() ? getBooleanArray(path.toString()) : Getters.booleans(getList(path));
+    }
+
+    /**
+     * Get the offset date-time.
+     *
+     * @param path the path where the object is located
+     * @return the offset date-time located at the given path.
+     */
+    default OffsetDateTime getOffsetDateTime(TomlPath path) {
+        return path.splitsBack() ? getOffsetDateTime(path.toString()) : (OffsetDateTime) get(path);
+    }
+
+    /**
+     * Get the local date-time.
+     *
+     * @param path the path where the object is located
+     * @return the local date-time located at the given path.
+     */
+    default LocalDateTime getLocalDateTime(TomlPath path) {
+        return path.splitsBack() ? getLocalDateTime(path.toString()) : (LocalDateTime) get(path);
+    }
+
+    /**
+     * Get the local date.
+     *
+     * @param path the path where the object is located
+     * @return the local date located at the given path.
+     */
+    default LocalDate getLocalDate(TomlPath path) {
+        return path.splitsBack() ? getLocalDate(path.toString()) : (LocalDate) get(path);
+    }
+
+    /**
+     * Get the local time.
+     *
+     * @param path the path where the object is located
+     * @return the local time located at the given path.
+     */
+    default LocalTime getLocalTime(TomlPath path) {
+        return path.splitsBack() ? getLocalTime(path.toString()) : (LocalTime) get(path);
+    }
 }
@@ -0,0 +1,67 @@
+package me.grison.jtoml;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helpers of the default methods of {@link Getter}.
+ *
+ * @author Alexandre Grison
+ */
+@SuppressWarnings("unchecked")
+final class Getters {
+    private Getters() {
+    }
+
+    /**
+     * Looks the given path up key by key, from the root table returned by <code>getMap("")</code>, so that keys
+     * containing dots are not split.
+     *
+     * @param getter the getter
+     * @param path   the path
+     * @return the value located at the given path, <code>null</code> if none
+     */
+    static Object find(Getter getter, TomlPath path) {
+        Object visitor = getter.getMap("");
+        for (int i = 0, size = path.size(); i < size; i++) {
+            if (!(visitor instanceof Map)) {
+                return null;
+            }
+            visitor = ((Map<String, Object>) visitor).get(path.get(i));
+        }
+        return visitor;
+    }
+
+    static long[] longs(List<Object> list) {
+        if (list == null) {
+            return null;
+        }
+        long[] result = new long[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (Long) list.get(i);
+        }
+        return result;
+    }
+
+    static double[] doubles(List<Object> list) {
+        if (list == null) {
+            return null;
+        }
+        double[] result = new double[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (Double) list.get(i);
+        }
+        return result;
+    }
+
+    static boolean[] booleans(List<Object> list) {
+        if (list == null) {
+            return null;
+        }
+        boolean[] result = new boolean[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (Boolean) list.get(i);
+        }
+        return result;
+    }
+}
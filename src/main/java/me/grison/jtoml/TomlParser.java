@@ -1,5 +1,10 @@
 package me.grison.jtoml;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 /**
@@ -19,4 +24,43 @@ public interface TomlParser {
      * @return a Map representing the given TOML structure.
      */
     Map<String, Object> parse(String tomlString);
+
+    /**
+     * Parses the TOML content of the given Reader, which is not closed.
+     *
+     * <p>Parsers able to consume the content incrementally through a bounded buffer should override this method,
+     * so that the whole document never needs to be held in memory. The default implementation reads the whole
+     * content into a String and delegates to {@link #parse(String)}.</p>
+     *
+     * @param reader the Reader
+     * @return a Map representing the given TOML structure.
+     * @throws UncheckedIOException if the reader cannot be read
+     */
+    default Map<String, Object> parse(Reader reader) {
+        StringBuilder content = new StringBuilder();
+        char[] buffer = new char[8192];
+        try {
+            for (int read = reader.read(buffer); read != -1; read = reader.read(buffer)) {
+                content.append(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return parse(content.toString());
+    }
+
+    /**
+     * Parses the remaining UTF-8 bytes of the given buffer, typically a memory-mapped file.
+     * The position of the buffer is left untouched.
+     *
+     * <p>Parsers able to decode bytes incrementally should override this method, so that the content is never
+     * decoded as a whole. The default implementation decodes the whole content into a String and delegates to
+     * {@link #parse(String)}.</p>
+     *
+     * @param buffer the UTF-8 bytes
+     * @return a Map representing the given TOML structure.
+     */
+    default Map<String, Object> parse(ByteBuffer buffer) {
+        return parse(StandardCharsets.UTF_8.decode(buffer.duplicate()).toString());
+    }
 }
@@ -0,0 +1,135 @@
+package me.grison.jtoml;
+
+import java.util.Arrays;
+
+/**
+ * A precompiled path to a TOML key.
+ * <p>
+ * Splitting a dotted key is done once when the path is created, so that looking up a value through a path is a
+ * plain walk in the context maps. Paths are immutable and can be kept in constants:
+ *
+ * <code>
+ * static final TomlPath ENABLED = TomlPath.of("features.x.enabled");
+ * Boolean enabled = toml.getBoolean(ENABLED);
+ * </code>
+ *
+ * @author Alexandre Grison
+ */
+public final class TomlPath {
+    /**
+     * The path of the root table.
+     */
+    public static final TomlPath ROOT = new TomlPath("", new String[0]);
+
+    private final String key;
+    private final String[] parts;
+
+    private TomlPath(String key, String[] parts) {
+        this.key = key;
+        this.parts = parts;
+    }
+
+    /**
+     * Creates the path of the given dotted key.
+     * <p><code>TomlPath.of("foo.bar.bazz") → ["foo", "bar", "bazz"]</code></p>
+     * A <code>null</code> or blank key is the path of the root table.
+     *
+     * @param key the dotted key
+     * @return the path
+     */
+    public static TomlPath of(String key) {
+        if (key == null || key.trim().isEmpty()) {
+            return ROOT;
+        }
+        int count = 1;
+        for (int i = key.indexOf('.'); i >= 0; i = key.indexOf('.', i + 1)) {
+            count++;
+        }
+        String[] parts = new String[count];
+        int start = 0;
+        for (int i = 0; i < count - 1; i++) {
+            int dot = key.indexOf('.', start);
+            parts[i] = key.substring(start, dot);
+            start = dot + 1;
+        }
+        parts[count - 1] = key.substring(start);
+        return new TomlPath(key, parts);
+    }
+
+    /**
+     * Creates the path made of the given keys, which may contain dots.
+     * <p><code>TomlPath.of("servers", "10.0.0.1") → ["servers", "10.0.0.1"]</code></p>
+     *
+     * @param parts the keys
+     * @return the path
+     */
+    public static TomlPath of(String... parts) {
+        return parts.length == 0 ? ROOT : new TomlPath(String.join(".", parts), parts.clone());
+    }
+
+    /**
+     * Returns the number of keys in this path.
+     *
+     * @return the number of keys, 0 for the root table
+     */
+    public int size() {
+        return parts.length;
+    }
+
+    /**
+     * Returns the key at the given index.
+     *
+     * @param index the index
+     * @return the key
+     */
+    public String get(int index) {
+        return parts[index];
+    }
+
+    /**
+     * Returns the path of the given child key.
+     *
+     * @param child the child key, which may contain dots
+     * @return the child path
+     */
+    public TomlPath resolve(String child) {
+        String[] childParts = Arrays.copyOf(parts, parts.length + 1);
+        childParts[parts.length] = child;
+        return new TomlPath(parts.length == 0 ? child : key + "." + child, childParts);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof TomlPath && Arrays.equals(parts, ((TomlPath) o).parts));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(parts);
+    }
+
+    /**
+     * Returns whether splitting the dotted key of this path gives back its keys, which is not the case when a key
+     * contains a dot.
+     *
+     * @return whether {@link #of(String)} of {@link #toString()} is this path
+     */
+    boolean splitsBack() {
+        for (String part : parts) {
+            if (part.indexOf('.') >= 0) {
+                return false;
+            }
+        }
+        return parts.length == 0 || !key.trim().isEmpty();
+    }
+
+    /**
+     * Returns the dotted key of this path.
+     *
+     * @return the dotted key
+     */
+    @Override
+    public String toString() {
+        return key;
+    }
+}
@@ -1,5 +1,7 @@
 package me.grison.jtoml;
 
+import java.io.IOException;
+
 /**
  * Toml TomlSerializer interface.
  *
@@ -22,4 +24,28 @@ public interface TomlSerializer {
      * @return the TOML String representing the given Object.
      */
     String serialize(String rootKey, Object object);
+
+    /**
+     * Serializes the given Object as TOML to the given Appendable.
+     *
+     * @param object the Object to be serialized
+     * @param out    where to write the TOML
+     * @throws IOException if the TOML cannot be written
+     */
+    default void serialize(Object object, Appendable out) throws IOException {
+        serialize(null, object, out);
+    }
+
+    /**
+     * Serializes the given Object as TOML to the given Appendable.
+     * The default implementation writes the whole TOML String built by {@link #serialize(String, Object)}.
+     *
+     * @param rootKey the root key (can be empty or null)
+     * @param object  the Object to be serialized
+     * @param out     where to write the TOML
+     * @throws IOException if the TOML cannot be written
+     */
+    default void serialize(String rootKey, Object object, Appendable out) throws IOException {
+        out.append(serialize(rootKey, object));
+    }
 }
@@ -3,11 +3,15 @@ package me.grison.jtoml;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.*;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalAccessor;
 import java.util.*;
 
 /**
@@ -19,28 +23,244 @@ public class Util {
     /**
      * <p>Helper class for handling ISO 8601 strings of the following format:</p>
      * <p>"2008-03-01T13:00:00+01:00". It also supports parsing the "Z" timezone.</p>
-     *
-     * <p>Author: <a href="http://stackoverflow.com/users/1010931/wrygiel">wrigiel</a></p>
-     * <p>Taken from: http://stackoverflow.com/questions/2201925/converting-iso8601-compliant-string-to-java-util-date</p>
+     * <p>Dates are scanned and formatted by hand, into and from the <code>java.time</code> types matching the TOML
+     * date kinds, without any intermediate String nor formatter.</p>
      */
     public static class ISO8601 {
+        private static final int[] NANOS_SCALE = {100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1};
+
         public static Calendar toCalendar(final String iso8601string) throws ParseException {
-            Calendar calendar = GregorianCalendar.getInstance();
-            String s = iso8601string.replace("Z", "+00:00");
             try {
-                s = s.substring(0, 22) + s.substring(23);
-            } catch (IndexOutOfBoundsException e) {
-                throw new ParseException("Invalid length", 0);
+                return toCalendar(parse(iso8601string));
+            } catch (IllegalArgumentException e) {
+                ParseException parseException = new ParseException(e.getMessage(), 0);
+                parseException.initCause(e);
+                throw parseException;
             }
-            Date date = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ").parse(s);
-            calendar.setTime(date);
-            return calendar;
         }
 
         public static String fromCalendar(final Calendar calendar) {
-            Date date = calendar.getTime();
-            String formatted = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ").format(date);
-            return (formatted.substring(0, 22) + ":" + formatted.substring(22)).replace("+00:00", "Z");
+            OffsetDateTime dateTime = Instant.ofEpochMilli(calendar.getTimeInMillis()).atZone(ZoneId.systemDefault())
+                    .toOffsetDateTime().withNano(0);
+            return format(dateTime);
+        }
+
+        /**
+         * Adapts the given TOML date to a Calendar in the default time zone.
+         * Local date-times and local dates are considered in the default time zone.
+         *
+         * @param dateTime an OffsetDateTime, a LocalDateTime or a LocalDate
+         * @return the Calendar
+         * @throws IllegalArgumentException if the date cannot be adapted (a LocalTime)
+         */
+        public static Calendar toCalendar(TemporalAccessor dateTime) {
+            Instant instant;
+            if (dateTime instanceof OffsetDateTime) {
+                instant = ((OffsetDateTime) dateTime).toInstant();
+            } else if (dateTime instanceof LocalDateTime) {
+                instant = ((LocalDateTime) dateTime).atZone(ZoneId.systemDefault()).toInstant();
+            } else if (dateTime instanceof LocalDate) {
+                instant = ((LocalDate) dateTime).atStartOfDay(ZoneId.systemDefault()).toInstant();
+            } else {
+                throw new IllegalArgumentException("`" + dateTime + "` cannot be converted to a Calendar.");
+            }
+            Calendar calendar = GregorianCalendar.getInstance();
+            calendar.setTimeInMillis(instant.toEpochMilli());
+            return calendar;
+        }
+
+        /**
+         * Parses a TOML date, which is one of:
+         * <ul>
+         *     <li>an offset date-time <code>1979-05-27T07:32:00.999-07:00</code>, as an {@link OffsetDateTime}</li>
+         *     <li>a local date-time <code>1979-05-27T07:32:00</code>, as a {@link LocalDateTime}</li>
+         *     <li>a local date <code>1979-05-27</code>, as a {@link LocalDate}</li>
+         *     <li>a local time <code>07:32:00</code>, as a {@link LocalTime}</li>
+         * </ul>
+         * The date and time may be separated by <code>T</code> or a space, and the fraction of seconds is optional.
+         *
+         * @param text the date
+         * @return the parsed date
+         * @throws IllegalArgumentException if the date is invalid
+         */
+        public static Temporal parse(CharSequence text) {
+            try {
+                int length = text.length();
+                if (length > 2 && text.charAt(2) == ':') {
+                    if (timeEnd(text, 0) != length) {
+                        throw invalid(text, null);
+                    }
+                    return time(text, 0, length);
+                }
+                if (length < 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+                    throw invalid(text, null);
+                }
+                LocalDate date = LocalDate.of(number(text, 0, 4), number(text, 5, 2), number(text, 8, 2));
+                if (length == 10) {
+                    return date;
+                }
+                char separator = text.charAt(10);
+                if (separator != 'T' && separator != 't' && separator != ' ') {
+                    throw invalid(text, null);
+                }
+                int end = timeEnd(text, 11);
+                LocalDateTime dateTime = LocalDateTime.of(date, time(text, 11, end));
+                if (end == length) {
+                    return dateTime;
+                }
+                char offset = text.charAt(end);
+                if ((offset == 'Z' || offset == 'z') && end + 1 == length) {
+                    return OffsetDateTime.of(dateTime, ZoneOffset.UTC);
+                } else if ((offset == '+' || offset == '-') && end + 6 == length && text.charAt(end + 3) == ':') {
+                    int seconds = (number(text, end + 1, 2) * 60 + number(text, end + 4, 2)) * 60;
+                    return OffsetDateTime.of(dateTime, ZoneOffset.ofTotalSeconds(offset == '-' ? -seconds : seconds));
+                }
+                throw invalid(text, null);
+            } catch (DateTimeException e) {
+                throw invalid(text, e);
+            }
+        }
+
+        /**
+         * Returns the index following the time starting at the given index: <code>HH:mm:ss</code> and an optional
+         * fraction of seconds.
+         */
+        private static int timeEnd(CharSequence text, int start) {
+            int end = start + 8;
+            if (end > text.length() || text.charAt(start + 2) != ':' || text.charAt(start + 5) != ':') {
+                throw invalid(text, null);
+            }
+            if (end < text.length() && text.charAt(end) == '.') {
+                int fraction = ++end;
+                while (end < text.length() && text.charAt(end) >= '0' && text.charAt(end) <= '9') {
+                    end++;
+                }
+                if (end == fraction) {
+                    throw invalid(text, null);
+                }
+            }
+            return end;
+        }
+
+        private static LocalTime time(CharSequence text, int start, int end) {
+            int nanos = 0;
+            // digits after the ninth one are ignored
+            for (int i = start + 9, digit = 0; i < end && digit < 9; i++, digit++) {
+                nanos += (text.charAt(i) - '0') * NANOS_SCALE[digit];
+            }
+            return LocalTime.of(number(text, start, 2), number(text, start + 3, 2), number(text, start + 6, 2), nanos);
+        }
+
+        private static int number(CharSequence text, int start, int count) {
+            int value = 0;
+            for (int i = start; i < start + count; i++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9') {
+                    throw invalid(text, null);
+                }
+                value = value * 10 + (c - '0');
+            }
+            return value;
+        }
+
+        private static IllegalArgumentException invalid(CharSequence text, Throwable cause) {
+            return new IllegalArgumentException("Invalid date `" + text + "`.", cause);
+        }
+
+        /**
+         * Formats the given TOML date.
+         *
+         * @param dateTime an OffsetDateTime, a LocalDateTime, a LocalDate or a LocalTime
+         * @return the formatted date
+         */
+        public static String format(TemporalAccessor dateTime) {
+            StringBuilder buffer = new StringBuilder(35);
+            try {
+                format(dateTime, buffer);
+            } catch (IOException e) {
+                // a StringBuilder never throws
+                throw new UncheckedIOException(e);
+            }
+            return buffer.toString();
+        }
+
+        /**
+         * Formats the given TOML date to the given Appendable, see {@link #parse(CharSequence)}. Offset date-times in
+         * UTC end with <code>Z</code>, and the fraction of seconds is only written when not zero.
+         *
+         * @param dateTime an OffsetDateTime, a LocalDateTime, a LocalDate or a LocalTime
+         * @param out      where to write the date
+         * @throws IOException if the date cannot be written
+         */
+        public static void format(TemporalAccessor dateTime, Appendable out) throws IOException {
+            if (dateTime instanceof OffsetDateTime) {
+                OffsetDateTime offsetDateTime = (OffsetDateTime) dateTime;
+                formatDate(offsetDateTime.getYear(), offsetDateTime.getMonthValue(), offsetDateTime.getDayOfMonth(), out);
+                out.append('T');
+                formatTime(offsetDateTime.getHour(), offsetDateTime.getMinute(), offsetDateTime.getSecond(), //
+                        offsetDateTime.getNano(), out);
+                int offset = offsetDateTime.getOffset().getTotalSeconds();
+                if (offset == 0) {
+                    out.append('Z');
+                } else {
+                    out.append(offset < 0 ? '-' : '+');
+                    offset = Math.abs(offset) / 60;
+                    formatNumber(offset / 60, 2, out);
+                    formatNumber(offset % 60, 2, out.append(':'));
+                }
+            } else if (dateTime instanceof LocalDateTime) {
+                LocalDateTime localDateTime = (LocalDateTime) dateTime;
+                formatDate(localDateTime.getYear(), localDateTime.getMonthValue(), localDateTime.getDayOfMonth(), out);
+                out.append('T');
+                formatTime(localDateTime.getHour(), localDateTime.getMinute(), localDateTime.getSecond(), //
+                        localDateTime.getNano(), out);
+            } else if (dateTime instanceof LocalDate) {
+                LocalDate localDate = (LocalDate) dateTime;
+                formatDate(localDate.getYear(), localDate.getMonthValue(), localDate.getDayOfMonth(), out);
+            } else if (dateTime instanceof LocalTime) {
+                LocalTime localTime = (LocalTime) dateTime;
+                formatTime(localTime.getHour(), localTime.getMinute(), localTime.getSecond(), localTime.getNano(), out);
+            } else {
+                throw new IllegalArgumentException("`" + dateTime + "` is not a TOML date.");
+            }
+        }
+
+        private static void formatDate(int year, int month, int day, Appendable out) throws IOException {
+            if (year < 0 || year > 9999) {
+                out.append(String.valueOf(year));
+            } else {
+                formatNumber(year, 4, out);
+            }
+            formatNumber(month, 2, out.append('-'));
+            formatNumber(day, 2, out.append('-'));
+        }
+
+        private static void formatTime(int hour, int minute, int second, int nanos, Appendable out) throws IOException {
+            formatNumber(hour, 2, out);
+            formatNumber(minute, 2, out.append(':'));
+            formatNumber(second, 2, out.append(':'));
+            if (nanos != 0) {
+                out.append('.');
+                int digits = 9;
+                while (nanos % 10 == 0) {
+                    nanos /= 10;
+                    digits--;
+                }
+                formatNumber(nanos, digits, out);
+            }
+        }
+
+        /**
+         * Writes the given positive number, left padded with zeros up to the given number of digits.
+         */
+        private static void formatNumber(int value, int digits, Appendable out) throws IOException {
+            for (int i = digits - 1; i >= 0; i--) {
+                out.append((char) ('0' + value / pow10(i) % 10));
+            }
+        }
+
+        private static int pow10(int exponent) {
+            return NANOS_SCALE[8 - exponent];
         }
     }
 
@@ -129,21 +349,44 @@ public class Util {
          */
         public static String escape(String input) {
             StringBuilder buffer = new StringBuilder(input.length());
+            try {
+                escape(input, buffer);
+            } catch (IOException e) {
+                // a StringBuilder never throws
+                throw new UncheckedIOException(e);
+            }
+            return buffer.toString();
+        }
+
+        /**
+         * Escapes a list of literals found in the given String, see {@link #escape(String)}, writing the result to the
+         * given Appendable. Runs of characters which need no escaping are written at once. Other control characters
+         * are written as <code>&#92;uXXXX</code>, while non-ASCII characters are written as they are.
+         *
+         * @param input the String to escape
+         * @param out   where to write the escaped String
+         * @throws IOException if the escaped String cannot be written
+         */
+        public static void escape(String input, Appendable out) throws IOException {
+            int start = 0;
             for (int i = 0; i < input.length(); i++) {
                 char ch = input.charAt(i);
-                /* SPACE */
-                /* DEL and above */
-                /* SPACE */
-                /* DEL and above */
-                if (ESCAPE.containsKey(ch)) {
-                    buffer.append("\\").append(ESCAPE.get(ch));
-                } else if (ch < 0x20 || ch >= 0x7F) {
-                    buffer.append("\\u").append(Integer.toHexString(ch));
+                if (ch >= 0x20 && ch != 0x7F && ch != '"' && ch != '\\') {
+                    continue;
+                }
+                out.append(input, start, i);
+                start = i + 1;
+                Character escaped = ESCAPE.get(ch);
+                if (escaped != null) {
+                    out.append('\\').append(escaped);
                 } else {
-                    buffer.append(ch);
+                    out.append("\\u");
+                    for (int shift = 12; shift >= 0; shift -= 4) {
+                        out.append(Character.forDigit((ch >> shift) & 0xF, 16));
+                    }
                 }
             }
-            return buffer.toString();
+            out.append(input, start, input.length());
         }
 
         /**
@@ -215,7 +458,7 @@ public class Util {
                 int.class, Integer.class, //
                 long.class, Long.class, //
                 double.class, Double.class, //
-                Calendar.class, //
+                Calendar.class, OffsetDateTime.class, LocalDateTime.class, LocalDate.class, LocalTime.class, //
                 char.class, char[].class,
                 boolean.class, Boolean.class, String.class, List.class, Map.class));
 
@@ -226,11 +469,11 @@ public class Util {
          * @return whether it is a built-in toml type
          */
         public static boolean isTomlSupportedType(Class<?> clazz) {
-            return TOML_SUPPORTED.contains(clazz);
+            return TOML_SUPPORTED.contains(clazz) || Calendar.class.isAssignableFrom(clazz);
         }
 
         public static boolean isTomlSupportedTypeExceptMap(Class<?> clazz) {
-            return TOML_SUPPORTED.contains(clazz) && !clazz.equals(Map.class);
+            return isTomlSupportedType(clazz) && !clazz.equals(Map.class);
         }
 
         /**
@@ -284,6 +527,8 @@ public class Util {
      */
     public static class TomlFieldComparator implements Comparator<Field> {
         List<Field> originalFields;
+        // position of each field in originalFields
+        private Map<Field, Integer> positions;
 
         public TomlFieldComparator(List<Field> fields) {
             this.setOriginalFields(fields);
@@ -291,6 +536,15 @@ public class Util {
 
         public void setOriginalFields(List<Field> originalFields) {
             this.originalFields = originalFields;
+            this.positions = new HashMap<>();
+            for (int i = originalFields.size() - 1; i >= 0; i--) {
+                positions.put(originalFields.get(i), i);
+            }
+        }
+
+        private int position(Field field) {
+            Integer position = positions.get(field);
+            return position == null ? -1 : position;
         }
 
         @Override
@@ -299,7 +553,7 @@ public class Util {
             boolean o2Supported = Util.Reflection.isTomlSupportedTypeExceptMap(field2.getType());
             // if built-in types or both complex types, keep original ordering
             if ((o1Supported && o2Supported) || (!o1Supported && !o2Supported)) {
-                return Integer.compare(originalFields.indexOf(field1), originalFields.indexOf(field2));
+                return Integer.compare(position(field1), position(field2));
             } else { // put complex types at the end
                 return o1Supported ? -1 : 1;
             }
@@ -0,0 +1,61 @@
+package me.grison.jtoml.impl;
+
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A read-only list of booleans backed by a {@link BitSet}.
+ *
+ * @author Alexandre Grison
+ */
+final class BooleanList extends AbstractList<Object> implements RandomAccess {
+    private final BitSet values;
+    private final int size;
+
+    BooleanList(BitSet values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * Creates the list holding the values of the given list, which must all be Booleans.
+     *
+     * @param list the Booleans
+     * @return the bit-backed list
+     */
+    static BooleanList copyOf(List<Object> list) {
+        BitSet values = new BitSet(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            values.set(i, (Boolean) list.get(i));
+        }
+        return new BooleanList(values, list.size());
+    }
+
+    /**
+     * Returns a copy of the values of this list.
+     *
+     * @return the values
+     */
+    boolean[] toBooleanArray() {
+        boolean[] result = new boolean[size];
+        for (int i = values.nextSetBit(0); i >= 0 && i < size; i = values.nextSetBit(i + 1)) {
+            result[i] = true;
+        }
+        return result;
+    }
+
+    @Override
+    public Object get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return values.get(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
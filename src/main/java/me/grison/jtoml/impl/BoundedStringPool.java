@@ -0,0 +1,79 @@
+package me.grison.jtoml.impl;
+
+/**
+ * A small pool of Strings for a single parse, not thread-safe.
+ * <p>
+ * Strings are kept in a fixed number of slots indexed by their hash, a String replacing the previous one of its slot,
+ * so that the pool never grows. A pooled String is found by comparing the characters of the slot, without creating a
+ * String. Strings longer than the maximum length are not pooled. Strings not found may be looked up in a shared pool,
+ * such as a {@link WeakStringPool}.
+ *
+ * <code>
+ * TomlParser parser = new SinglePassTomlParser(() -> new BoundedStringPool(1024, 32));
+ * </code>
+ *
+ * @author Alexandre Grison
+ */
+public class BoundedStringPool implements TomlStringPool {
+    private final String[] slots;
+    private final int maxLength;
+    private final TomlStringPool shared;
+    private long bytesSaved;
+
+    /**
+     * Creates a pool of the given size.
+     *
+     * @param capacity  the number of slots, rounded up to a power of 2
+     * @param maxLength the maximum length of the pooled Strings
+     */
+    public BoundedStringPool(int capacity, int maxLength) {
+        this(capacity, maxLength, null);
+    }
+
+    /**
+     * Creates a pool of the given size, looking up the Strings it does not hold in the given shared pool.
+     *
+     * @param capacity  the number of slots, rounded up to a power of 2
+     * @param maxLength the maximum length of the pooled Strings
+     * @param shared    the pool of the Strings not found, may be <code>null</code>
+     */
+    public BoundedStringPool(int capacity, int maxLength, TomlStringPool shared) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.slots = new String[Integer.highestOneBit(capacity * 2 - 1)];
+        this.maxLength = maxLength;
+        this.shared = shared;
+    }
+
+    @Override
+    public String intern(CharSequence chars) {
+        int length = chars.length();
+        if (length > maxLength) {
+            return chars.toString();
+        }
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars.charAt(i);
+        }
+        int slot = (hash ^ hash >>> 16) & (slots.length - 1);
+        String pooled = slots[slot];
+        if (pooled != null && pooled.length() == length && pooled.contentEquals(chars)) {
+            bytesSaved += TomlStringPool.sizeOf(length);
+            return pooled;
+        }
+        pooled = shared == null ? chars.toString() : shared.intern(chars);
+        slots[slot] = pooled;
+        return pooled;
+    }
+
+    /**
+     * Returns the bytes saved by this pool, not counting those saved by the shared pool.
+     *
+     * @return the bytes saved
+     */
+    @Override
+    public long getBytesSaved() {
+        return bytesSaved;
+    }
+}
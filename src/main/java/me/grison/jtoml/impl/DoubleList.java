@@ -0,0 +1,51 @@
+package me.grison.jtoml.impl;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A read-only list of doubles backed by a <code>double[]</code>, without any boxed element kept in memory.
+ *
+ * @author Alexandre Grison
+ */
+final class DoubleList extends AbstractList<Object> implements RandomAccess {
+    private final double[] values;
+
+    DoubleList(double[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Creates the list holding the values of the given list, which must all be Doubles.
+     *
+     * @param list the Doubles
+     * @return the primitive-backed list
+     */
+    static DoubleList copyOf(List<Object> list) {
+        double[] values = new double[list.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (Double) list.get(i);
+        }
+        return new DoubleList(values);
+    }
+
+    /**
+     * Returns a copy of the values of this list.
+     *
+     * @return the values
+     */
+    double[] toDoubleArray() {
+        return values.clone();
+    }
+
+    @Override
+    public Object get(int index) {
+        return values[index];
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+}
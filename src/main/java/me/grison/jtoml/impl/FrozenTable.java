@@ -0,0 +1,123 @@
+package me.grison.jtoml.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A read-only TOML table stored as two parallel arrays of keys and values, in insertion order, indexed by an
+ * open-addressing table of ints.
+ * <p>
+ * Compared to a {@link java.util.LinkedHashMap}, there is no entry object per key: a key costs a slot in each array
+ * plus two ints of index. Keys are interned, so that the same key in many tables or documents is stored once.
+ *
+ * @author Alexandre Grison
+ */
+final class FrozenTable extends AbstractMap<String, Object> {
+    private final String[] keys;
+    private final Object[] values;
+    /**
+     * Open-addressing index: <code>position + 1</code> of the key in {@link #keys}, 0 for an empty slot.
+     */
+    private final int[] slots;
+
+    /**
+     * Creates a table holding the given keys and values, which must not contain duplicate keys.
+     *
+     * @param keys   the keys, interned by this constructor
+     * @param values the values
+     */
+    FrozenTable(String[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+        this.slots = new int[Math.max(2, Integer.highestOneBit(Math.max(1, keys.length) * 2 - 1) << 1)];
+        int mask = slots.length - 1;
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = keys[i].intern();
+            int slot = hash(keys[i]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i + 1;
+        }
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the position of the given key in {@link #keys}.
+     *
+     * @param key the key
+     * @return the position, -1 if not found
+     */
+    private int indexOf(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        int mask = slots.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            int index = slots[slot] - 1;
+            if (index < 0) {
+                return -1;
+            }
+            String candidate = keys[index];
+            if (candidate == key || candidate.equals(key)) {
+                return index;
+            }
+        }
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<Entry<String, Object>>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < keys.length;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (index >= keys.length) {
+                            throw new NoSuchElementException();
+                        }
+                        Map.Entry<String, Object> entry = new SimpleImmutableEntry<>(keys[index], values[index]);
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+}
@@ -0,0 +1,136 @@
+package me.grison.jtoml.impl;
+
+import me.grison.jtoml.TomlParser;
+import me.grison.jtoml.TomlPath;
+
+import java.io.File;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * A read-only, compact copy of a parsed {@link Toml}, see {@link Toml#freeze()}.
+ * <p>
+ * Tables are {@link FrozenTable}s, homogeneous arrays of longs, doubles and booleans are backed by primitive arrays
+ * and every other array is an unmodifiable list. Dates returned by {@link #getDate(String)} are copies.
+ *
+ * @author Alexandre Grison
+ */
+@SuppressWarnings("unchecked")
+final class FrozenToml extends Toml {
+    FrozenToml(Map<String, Object> context, TomlParser tomlParser) {
+        super(tomlParser);
+        this.context = freezeTable(context);
+    }
+
+    private FrozenToml(TomlParser tomlParser) {
+        super(tomlParser);
+    }
+
+    /**
+     * Creates a frozen instance over the given tables, which must already be read-only.
+     *
+     * @param context    the read-only tables
+     * @param tomlParser the TOML parser
+     * @return the frozen instance
+     */
+    static FrozenToml readOnly(Map<String, Object> context, TomlParser tomlParser) {
+        FrozenToml toml = new FrozenToml(tomlParser);
+        toml.context = context;
+        return toml;
+    }
+
+    /**
+     * Creates the compact, read-only copy of the given value.
+     *
+     * @param value the value
+     * @return the frozen value
+     */
+    static Object freeze(Object value) {
+        if (value instanceof FrozenTable) {
+            return value;
+        } else if (value instanceof Map) {
+            return freezeTable((Map<String, Object>) value);
+        } else if (value instanceof List) {
+            return freezeList((List<Object>) value);
+        }
+        return value;
+    }
+
+    private static FrozenTable freezeTable(Map<String, Object> table) {
+        if (table instanceof FrozenTable) {
+            return (FrozenTable) table;
+        }
+        String[] keys = new String[table.size()];
+        Object[] values = new Object[keys.length];
+        int i = 0;
+        for (Map.Entry<String, Object> entry : table.entrySet()) {
+            keys[i] = entry.getKey();
+            values[i++] = freeze(entry.getValue());
+        }
+        return new FrozenTable(keys, values);
+    }
+
+    private static List<Object> freezeList(List<Object> list) {
+        int size = list.size();
+        if (size == 0) {
+            return Collections.emptyList();
+        } else if (list instanceof LongList || list instanceof DoubleList || list instanceof BooleanList) {
+            return list;
+        }
+        Class<?> type = list.get(0) == null ? null : list.get(0).getClass();
+        for (Object o : list) {
+            if (o == null || o.getClass() != type) {
+                type = null;
+                break;
+            }
+        }
+        if (type == Long.class) {
+            return LongList.copyOf(list);
+        } else if (type == Double.class) {
+            return DoubleList.copyOf(list);
+        } else if (type == Boolean.class) {
+            return BooleanList.copyOf(list);
+        }
+        Object[] values = new Object[size];
+        for (int i = 0; i < size; i++) values[i] = freeze(list.get(i));
+        return Collections.unmodifiableList(Arrays.asList(values));
+    }
+
+    @Override
+    public Toml freeze() {
+        return this;
+    }
+
+    @Override
+    public Calendar getDate(String key) {
+        return copy(super.getDate(key));
+    }
+
+    @Override
+    public Calendar getDate(TomlPath path) {
+        return copy(super.getDate(path));
+    }
+
+    private static Calendar copy(Calendar calendar) {
+        return calendar == null ? null : (Calendar) calendar.clone();
+    }
+
+    @Override
+    public Toml parseString(String string) {
+        throw readOnly();
+    }
+
+    @Override
+    public Toml parseReader(Reader reader) {
+        throw readOnly();
+    }
+
+    @Override
+    public Toml parseFile(File file) {
+        throw readOnly();
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("A frozen Toml instance cannot be parsed again.");
+    }
+}
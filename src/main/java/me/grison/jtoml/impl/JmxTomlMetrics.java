@@ -0,0 +1,162 @@
+package me.grison.jtoml.impl;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link TomlMetrics} summing parses and lookups into counters, exposed through JMX.
+ *
+ * <code>
+ * JmxTomlMetrics metrics = new JmxTomlMetrics();
+ * metrics.register();
+ * Toml.setMetrics(metrics);
+ * </code>
+ *
+ * @author Alexandre Grison
+ */
+public class JmxTomlMetrics implements TomlMetrics, JmxTomlMetricsMXBean {
+    /**
+     * The name {@link #register()} registers the metrics with.
+     */
+    public static final String OBJECT_NAME = "me.grison.jtoml:type=TomlMetrics";
+
+    private final LongAdder parseCount = new LongAdder();
+    private final LongAdder parseErrors = new LongAdder();
+    private final LongAdder parseNanos = new LongAdder();
+    private final Map<String, LongAdder> phaseNanos = new ConcurrentHashMap<>();
+    private final LongAdder characters = new LongAdder();
+    private final LongAdder lines = new LongAdder();
+    private final LongAdder tables = new LongAdder();
+    private final LongAdder keys = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+    private final LongAdder lookupCount = new LongAdder();
+    private final LongAdder lookupMisses = new LongAdder();
+    private final LongAdder lookupNanos = new LongAdder();
+
+    /**
+     * Registers these metrics in the platform MBean server, as {@link #OBJECT_NAME}.
+     *
+     * @return the registered name
+     * @throws IllegalStateException if the metrics cannot be registered, for instance when already registered
+     */
+    public ObjectName register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            return server.registerMBean(this, new ObjectName(OBJECT_NAME)).getObjectName();
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register the TOML metrics as " + OBJECT_NAME, e);
+        }
+    }
+
+    @Override
+    public void parsed(ParseStats stats) {
+        parseCount.increment();
+        record(stats);
+    }
+
+    @Override
+    public void parseFailed(ParseStats stats, RuntimeException error) {
+        parseErrors.increment();
+        record(stats);
+    }
+
+    private void record(ParseStats stats) {
+        parseNanos.add(stats.getNanos());
+        for (Map.Entry<String, Long> phase : stats.getPhases().entrySet()) {
+            phaseNanos.computeIfAbsent(phase.getKey(), k -> new LongAdder()).add(phase.getValue());
+        }
+        characters.add(Math.max(0, stats.getCharacters()));
+        lines.add(Math.max(0, stats.getLines()));
+        tables.add(Math.max(0, stats.getTables()));
+        keys.add(Math.max(0, stats.getKeys()));
+        bytesSaved.add(Math.max(0, stats.getBytesSaved()));
+    }
+
+    @Override
+    public void lookedUp(long nanos, boolean found) {
+        lookupCount.increment();
+        lookupNanos.add(nanos);
+        if (!found) {
+            lookupMisses.increment();
+        }
+    }
+
+    @Override
+    public long getParseCount() {
+        return parseCount.sum();
+    }
+
+    @Override
+    public long getParseErrors() {
+        return parseErrors.sum();
+    }
+
+    @Override
+    public long getParseNanos() {
+        return parseNanos.sum();
+    }
+
+    @Override
+    public Map<String, Long> getPhaseNanos() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> phase : phaseNanos.entrySet()) {
+            result.put(phase.getKey(), phase.getValue().sum());
+        }
+        return result;
+    }
+
+    @Override
+    public long getCharacters() {
+        return characters.sum();
+    }
+
+    @Override
+    public long getLines() {
+        return lines.sum();
+    }
+
+    @Override
+    public long getTables() {
+        return tables.sum();
+    }
+
+    @Override
+    public long getKeys() {
+        return keys.sum();
+    }
+
+    @Override
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    @Override
+    public long getLookupCount() {
+        return lookupCount.sum();
+    }
+
+    @Override
+    public long getLookupMisses() {
+        return lookupMisses.sum();
+    }
+
+    @Override
+    public long getLookupNanos() {
+        return lookupNanos.sum();
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder adder : new LongAdder[]{parseCount, parseErrors, parseNanos, characters, lines, tables, keys,
+                bytesSaved, lookupCount, lookupMisses, lookupNanos}) {
+            adder.reset();
+        }
+        phaseNanos.clear();
+    }
+}
@@ -0,0 +1,75 @@
+package me.grison.jtoml.impl;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link JmxTomlMetrics}.
+ *
+ * @author Alexandre Grison
+ */
+public interface JmxTomlMetricsMXBean {
+    /**
+     * @return the number of parsed documents
+     */
+    long getParseCount();
+
+    /**
+     * @return the number of documents which could not be parsed
+     */
+    long getParseErrors();
+
+    /**
+     * @return the total parse duration, in nanoseconds
+     */
+    long getParseNanos();
+
+    /**
+     * @return the total duration of each parse phase, in nanoseconds
+     */
+    Map<String, Long> getPhaseNanos();
+
+    /**
+     * @return the total number of parsed characters
+     */
+    long getCharacters();
+
+    /**
+     * @return the total number of parsed lines
+     */
+    long getLines();
+
+    /**
+     * @return the total number of parsed table headers
+     */
+    long getTables();
+
+    /**
+     * @return the total number of parsed keys
+     */
+    long getKeys();
+
+    /**
+     * @return the total bytes saved by the string pools of the parsers
+     */
+    long getBytesSaved();
+
+    /**
+     * @return the number of looked up values
+     */
+    long getLookupCount();
+
+    /**
+     * @return the number of looked up values which were not found
+     */
+    long getLookupMisses();
+
+    /**
+     * @return the total lookup duration, in nanoseconds
+     */
+    long getLookupNanos();
+
+    /**
+     * Resets every counter.
+     */
+    void reset();
+}
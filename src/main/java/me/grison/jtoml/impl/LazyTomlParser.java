@@ -0,0 +1,166 @@
+package me.grison.jtoml.impl;
+
+import me.grison.jtoml.TomlParser;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lazy Toml parser.
+ * <p>
+ * The structure of the document (tables, arrays of tables, keys, strings and arrays delimiters) is read and checked
+ * as by {@link SinglePassTomlParser}, but values are not decoded: each value only remembers where it starts in the
+ * TOML String, and is decoded (unescaped, converted) the first time it is accessed, then kept. Documents of which only
+ * a few keys are read are parsed much faster, at the price of keeping the TOML String in memory while values are not
+ * all decoded.
+ * <p>
+ * As numbers and dates are only decoded on access, an invalid number or date is reported when its value is read,
+ * not when the document is parsed. Decoding is thread-safe: concurrent readers may decode the same value twice, but
+ * always see an equal value.
+ * <p>
+ * <code>Toml toml = Toml.parse(tomlString, new LazyTomlParser());</code>
+ *
+ * @author Alexandre Grison
+ */
+public class LazyTomlParser implements TomlParser {
+    @Override
+    public Map<String, Object> parse(String tomlString) {
+        TomlReader reader = new TomlReader(TomlInput.of(tomlString), null);
+        reader.scanOnly = true;
+        TomlTreeBuilder builder = new LazyTreeBuilder(tomlString);
+        Map<String, Object> context = builder.build(reader);
+        builder.record(reader);
+        return context;
+    }
+
+    /**
+     * Builds tables holding {@link LazyValue}s instead of values.
+     */
+    private static final class LazyTreeBuilder extends TomlTreeBuilder {
+        private final String tomlString;
+
+        LazyTreeBuilder(String tomlString) {
+            this.tomlString = tomlString;
+        }
+
+        @Override
+        Map<String, Object> newTable() {
+            return new LazyTable();
+        }
+
+        @Override
+        Object readEntryValue(TomlReader reader) {
+            reader.next();
+            LazyValue value = new LazyValue(tomlString, (int) reader.start(), reader.line(), reader.column());
+            reader.skipValue();
+            return value;
+        }
+    }
+
+    /**
+     * A value which is decoded on first access.
+     */
+    private static final class LazyValue {
+        private static final TomlTreeBuilder DECODER = new TomlTreeBuilder();
+
+        private final String tomlString;
+        private final int start;
+        private final int line;
+        private final int column;
+        private volatile Object value;
+
+        LazyValue(String tomlString, int start, int line, int column) {
+            this.tomlString = tomlString;
+            this.start = start;
+            this.line = line;
+            this.column = column;
+        }
+
+        Object get() {
+            Object decoded = value;
+            if (decoded == null) {
+                TomlReader reader = TomlReader.valueAt(tomlString, start, line, column);
+                decoded = DECODER.readValue(reader, reader.next());
+                value = decoded;
+            }
+            return decoded;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(get());
+        }
+    }
+
+    /**
+     * A table decoding its values when they are read.
+     */
+    private static final class LazyTable extends AbstractMap<String, Object> {
+        private final Map<String, Object> entries = new LinkedHashMap<>();
+
+        private static Object decode(Object value) {
+            return value instanceof LazyValue ? ((LazyValue) value).get() : value;
+        }
+
+        @Override
+        public Object get(Object key) {
+            return decode(entries.get(key));
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return entries.containsKey(key);
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            return decode(entries.put(key, value));
+        }
+
+        @Override
+        public Object remove(Object key) {
+            return decode(entries.remove(key));
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    final Iterator<Entry<String, Object>> iterator = entries.entrySet().iterator();
+                    return new Iterator<Entry<String, Object>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            Entry<String, Object> entry = iterator.next();
+                            return new SimpleImmutableEntry<>(entry.getKey(), decode(entry.getValue()));
+                        }
+
+                        @Override
+                        public void remove() {
+                            iterator.remove();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return entries.size();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package me.grison.jtoml.impl;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A read-only list of longs backed by a <code>long[]</code>, without any boxed element kept in memory.
+ *
+ * @author Alexandre Grison
+ */
+final class LongList extends AbstractList<Object> implements RandomAccess {
+    private final long[] values;
+
+    LongList(long[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Creates the list holding the values of the given list, which must all be Longs.
+     *
+     * @param list the Longs
+     * @return the primitive-backed list
+     */
+    static LongList copyOf(List<Object> list) {
+        long[] values = new long[list.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (Long) list.get(i);
+        }
+        return new LongList(values);
+    }
+
+    /**
+     * Returns a copy of the values of this list.
+     *
+     * @return the values
+     */
+    long[] toLongArray() {
+        return values.clone();
+    }
+
+    /**
+     * Returns the value at the given index, without boxing it.
+     *
+     * @param index the index
+     * @return the value
+     */
+    long getLong(int index) {
+        return values[index];
+    }
+
+    @Override
+    public Object get(int index) {
+        return values[index];
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+}
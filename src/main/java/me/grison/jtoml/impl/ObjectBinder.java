@@ -0,0 +1,230 @@
+package me.grison.jtoml.impl;
+
+import me.grison.jtoml.Util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.LocalTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binds TOML tables to instances of a class, see {@link Toml#getAs(String, Class)}.
+ * <p>
+ * A class is introspected once: its no-arg constructor and the setters of its instance fields are resolved as
+ * {@link MethodHandle}s and cached with the class, so that binding a table is a constructor call followed by a map
+ * lookup and a setter call per field. Static and synthetic fields are ignored.
+ * <p>
+ * Properties are also indexed by name, so that binders of nested classes form a trie of the keys of a class, walked by
+ * {@link SchemaBinder} while reading a document.
+ *
+ * @author Alexandre Grison
+ */
+@SuppressWarnings("unchecked")
+final class ObjectBinder {
+    private static final ClassValue<ObjectBinder> BINDERS = new ClassValue<ObjectBinder>() {
+        @Override
+        protected ObjectBinder computeValue(Class<?> type) {
+            return new ObjectBinder(type);
+        }
+    };
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final Class<?> type;
+    private final MethodHandle constructor;
+    private final Property[] properties;
+    private final Map<String, Property> propertiesByName = new HashMap<>();
+    // the reason why this class cannot be bound, if any
+    private final RuntimeException failure;
+
+    private ObjectBinder(Class<?> type) {
+        this.type = type;
+        MethodHandle constructor = null;
+        List<Property> properties = new ArrayList<>();
+        RuntimeException failure = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Constructor<?> noArg = type.getDeclaredConstructor();
+            noArg.setAccessible(true);
+            constructor = lookup.unreflectConstructor(noArg).asType(CONSTRUCTOR_TYPE);
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                    continue;
+                }
+                field.setAccessible(true);
+                properties.add(new Property(field, lookup.unreflectSetter(field).asType(SETTER_TYPE), //
+                        lookup.unreflectGetter(field).asType(GETTER_TYPE)));
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            failure = new IllegalArgumentException("Class `" + type.getName() + "` cannot be bound to TOML.", e);
+        }
+        this.constructor = constructor;
+        this.properties = properties.toArray(new Property[0]);
+        this.failure = failure;
+        for (Property property : this.properties) {
+            propertiesByName.put(property.name, property);
+        }
+    }
+
+    /**
+     * Gets the binder of the given class.
+     *
+     * @param type the class
+     * @return the binder
+     */
+    static ObjectBinder of(Class<?> type) {
+        return BINDERS.get(type);
+    }
+
+    /**
+     * Creates a new instance filled with the values of the given table.
+     *
+     * @param table the table, <code>null</code> if missing, in which case nested objects are still created
+     * @param key   the key of the table, for error messages
+     * @return the new instance
+     * @throws IllegalArgumentException if a value does not have the type of its field
+     */
+    Object bind(Map<String, Object> table, String key) {
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            Object result = constructor.invokeExact();
+            for (Property property : properties) {
+                Object value = table == null ? null : table.get(property.name);
+                if (property.nested) {
+                    value = of(property.type).bind(value instanceof Map ? (Map<String, Object>) value : null, //
+                            property.key(key));
+                } else if (value == null) {
+                    if (property.type.isPrimitive()) {
+                        continue;
+                    }
+                } else {
+                    value = property.convert(value, key);
+                }
+                property.setter.invokeExact(result, value);
+            }
+            return result;
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("Could not map value of key `" + key + //
+                    "` to Object of class `" + type.getName() + "`.", e);
+        }
+    }
+
+    /**
+     * Sets the values of the given table to the given instance, created by this binder, leaving its other fields
+     * unchanged. Every key of the table must be a property of the instance.
+     *
+     * @param instance the instance
+     * @param table    the table
+     * @param key      the key of the table, for error messages
+     * @throws IllegalArgumentException if a value does not have the type of its field
+     */
+    void bindInto(Object instance, Map<String, Object> table, String key) {
+        for (Map.Entry<String, Object> entry : table.entrySet()) {
+            Property property = property(entry.getKey());
+            Object value = entry.getValue();
+            if (property.nested) {
+                of(property.type).bindInto(property.get(instance), (Map<String, Object>) value, property.key(key));
+            } else {
+                property.set(instance, property.convert(value, key));
+            }
+        }
+    }
+
+    /**
+     * Gets the property of the given name.
+     *
+     * @param name the name of the field
+     * @return the property, <code>null</code> if the class has no such field
+     */
+    Property property(String name) {
+        return propertiesByName.get(name);
+    }
+
+    /**
+     * A field to be set.
+     */
+    static final class Property {
+        final String name;
+        final Class<?> type;
+        // the class of the values accepted for this field
+        final Class<?> valueType;
+        // whether it is bound from a nested table rather than a value
+        final boolean nested;
+        // whether TOML dates are adapted to a Calendar
+        final boolean calendar;
+        final MethodHandle setter;
+
+        final MethodHandle getter;
+
+        Property(Field field, MethodHandle setter, MethodHandle getter) {
+            this.name = field.getName().intern();
+            this.type = field.getType();
+            this.valueType = MethodType.methodType(type).wrap().returnType();
+            this.nested = !Util.Reflection.isTomlSupportedType(type);
+            this.calendar = type == Calendar.class;
+            this.setter = setter;
+            this.getter = getter;
+        }
+
+        /**
+         * Adapts the given value to the type of this field.
+         *
+         * @param value  the value, not <code>null</code>
+         * @param parent the key of the table holding the value, for error messages
+         * @return the value to set
+         * @throws IllegalArgumentException if the value does not have the type of this field
+         */
+        Object convert(Object value, String parent) {
+            if (!accepts(value)) {
+                throw Toml.illegalArg(key(parent), value, type);
+            }
+            return calendar && value instanceof Temporal ? Util.ISO8601.toCalendar((Temporal) value) : value;
+        }
+
+        /**
+         * Returns whether the given value can be set to this field, possibly once adapted.
+         *
+         * @param value the value, not <code>null</code>
+         * @return whether the value is accepted
+         */
+        boolean accepts(Object value) {
+            return valueType.isInstance(value) || calendar && value instanceof Temporal && !(value instanceof LocalTime);
+        }
+
+        Object get(Object instance) {
+            try {
+                return getter.invokeExact(instance);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void set(Object instance, Object value) {
+            try {
+                setter.invokeExact(instance, value);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        String key(String parent) {
+            return parent == null || parent.trim().isEmpty() ? name : parent + "." + name;
+        }
+    }
+}
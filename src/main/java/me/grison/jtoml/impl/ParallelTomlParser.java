@@ -0,0 +1,245 @@
+package me.grison.jtoml.impl;
+
+import me.grison.jtoml.TomlParser;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntPredicate;
+
+/**
+ * Parallel Toml parser, for large documents made of many tables.
+ * <p>
+ * The document is first scanned for top-level table headers (skipping comments, strings, multi-line strings and
+ * arrays), and split at some of them into chunks of similar length. Chunks are parsed on a {@link ForkJoinPool} as
+ * {@link SinglePassTomlParser} would, and their tables merged in document order: tables declared in several chunks are
+ * merged together, tables declared after an array of tables belong to its last table, and arrays of tables are
+ * appended to.
+ * <p>
+ * Chunks are parsed independently, so that an error, or a conflicting key between two chunks, can not be reported
+ * reliably by a chunk: the whole document is then parsed again sequentially, giving the same result or error than
+ * {@link SinglePassTomlParser}. Small documents, or any document when the pool has a single thread, are parsed
+ * sequentially.
+ * <p>
+ * <code>Toml toml = Toml.parse(path, new ParallelTomlParser());</code>
+ *
+ * @author Alexandre Grison
+ */
+@SuppressWarnings("unchecked")
+public class ParallelTomlParser implements TomlParser {
+    /**
+     * Minimal length of a chunk, shorter documents are parsed sequentially.
+     */
+    static final int MIN_CHUNK_LENGTH = 1 << 14;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a parser using the common {@link ForkJoinPool}.
+     */
+    public ParallelTomlParser() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a parser using the given pool.
+     *
+     * @param pool the pool parsing the chunks
+     */
+    public ParallelTomlParser(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public Map<String, Object> parse(String tomlString) {
+        int parallelism = pool.getParallelism();
+        if (parallelism > 1 && tomlString.length() >= 2 * MIN_CHUNK_LENGTH) {
+            ParseStats stats = ParseStats.current();
+            long start = stats == null ? 0 : System.nanoTime();
+            int[] starts = split(tomlString, Math.max(MIN_CHUNK_LENGTH, tomlString.length() / (parallelism * 4)));
+            if (stats != null) {
+                long now = System.nanoTime();
+                stats.phase("split", now - start);
+                stats.document(tomlString.length(), -1, -1, -1);
+                start = now;
+            }
+            try {
+                Map<String, Object> context = pool.invoke(new ChunkTask(tomlString, starts, 0, starts.length));
+                if (stats != null) {
+                    stats.phase("chunks", System.nanoTime() - start);
+                }
+                return context;
+            } catch (IllegalArgumentException e) {
+                // reported below, with its actual line
+            }
+        }
+        TomlReader reader = new TomlReader(TomlInput.of(tomlString), null);
+        TomlTreeBuilder builder = new TomlTreeBuilder();
+        Map<String, Object> context = builder.build(reader);
+        builder.record(reader);
+        return context;
+    }
+
+    private static Map<String, Object> parse(String tomlString, int from, int to) {
+        return new TomlTreeBuilder().build(new TomlReader(TomlInput.of(tomlString, from, to), null));
+    }
+
+    /**
+     * Returns the start of each chunk: the start of the document, then the start of some top-level table headers,
+     * at least <code>chunkLength</code> characters apart.
+     *
+     * @param s           the TOML String
+     * @param chunkLength the minimal length of a chunk
+     * @return the start of each chunk
+     */
+    static int[] split(String s, int chunkLength) {
+        return split(s, 0, chunkLength, null);
+    }
+
+    /**
+     * Returns the start of each chunk from the given index: the given index, then the start of some top-level table
+     * headers, at least <code>chunkLength</code> characters apart.
+     *
+     * @param s           the TOML String
+     * @param from        where to start, the start of the document or of a top-level table header
+     * @param chunkLength the minimal length of a chunk
+     * @param last        tells whether a chunk start is the last one needed, <code>null</code> to split up to the end
+     * @return the start of each chunk
+     */
+    static int[] split(String s, int from, int chunkLength, IntPredicate last) {
+        int[] starts = new int[8];
+        starts[0] = from;
+        int count = 1;
+        int depth = 0;
+        boolean lineStart = true, header = false;
+        for (int i = from, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            if (c > ']' || (c >= '0' && c <= 'Z')) {
+                // neither a delimiter nor a blank, which is most characters
+                lineStart = false;
+                continue;
+            } else if (c == '\n') {
+                lineStart = true;
+                header = false;
+                continue;
+            } else if (c == ' ' || c == '\t' || c == '\r') {
+                continue;
+            }
+            boolean first = lineStart;
+            lineStart = false;
+            if (c == '#') {
+                i = lineEnd(s, i) - 1;
+            } else if (c == '"' || c == '\'') {
+                i = stringEnd(s, i) - 1;
+            } else if (c == '[') {
+                if (first && depth == 0) {
+                    header = true;
+                    if (i > starts[count - 1] && i - starts[count - 1] >= chunkLength) {
+                        if (count == starts.length) {
+                            starts = Arrays.copyOf(starts, count * 2);
+                        }
+                        starts[count++] = i;
+                        if (last != null && last.test(i)) {
+                            break;
+                        }
+                    }
+                } else if (!header) {
+                    depth++;
+                }
+            } else if (c == ']' && !header && depth > 0) {
+                depth--;
+            }
+        }
+        return Arrays.copyOf(starts, count);
+    }
+
+    private static int lineEnd(String s, int from) {
+        int end = s.indexOf('\n', from);
+        return end < 0 ? s.length() : end;
+    }
+
+    /**
+     * Returns the index after the String starting at the given index. An unterminated String ends with its line,
+     * or with the document for a multi-line String.
+     */
+    private static int stringEnd(String s, int from) {
+        char quote = s.charAt(from);
+        boolean multiLine = s.startsWith(quote == '"' ? "\"\"\"" : "'''", from);
+        int n = s.length();
+        for (int i = from + (multiLine ? 3 : 1); i < n; i++) {
+            char c = s.charAt(i);
+            if (c == '\\' && quote == '"') {
+                i++;
+            } else if (c == quote) {
+                if (!multiLine) {
+                    return i + 1;
+                } else if (i + 2 < n && s.charAt(i + 1) == quote && s.charAt(i + 2) == quote) {
+                    return i + 3;
+                }
+            } else if (c == '\n' && !multiLine) {
+                return i;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Merges the tables of the given chunk into the given tables, as if the chunk followed them in the document.
+     *
+     * @param target the tables of the previous chunks
+     * @param source the tables of the chunk
+     * @throws IllegalArgumentException if a key conflicts
+     */
+    static void merge(Map<String, Object> target, Map<String, Object> source) {
+        for (Map.Entry<String, Object> entry : source.entrySet()) {
+            String key = entry.getKey();
+            Object existing = target.get(key), value = entry.getValue();
+            if (existing == null) {
+                target.put(key, value);
+            } else if (existing instanceof Map && value instanceof Map) {
+                merge((Map<String, Object>) existing, (Map<String, Object>) value);
+            } else if (TomlTreeBuilder.isArrayOfTables(existing) && value instanceof Map) {
+                List<Object> tables = (List<Object>) existing;
+                merge((Map<String, Object>) tables.get(tables.size() - 1), (Map<String, Object>) value);
+            } else if (TomlTreeBuilder.isArrayOfTables(existing) && TomlTreeBuilder.isArrayOfTables(value)) {
+                ((List<Object>) existing).addAll((List<Object>) value);
+            } else {
+                throw TomlTreeBuilder.overwrite(Arrays.asList(key), existing);
+            }
+        }
+    }
+
+    /**
+     * Parses a range of chunks, splitting it in two halves parsed in parallel.
+     */
+    private static final class ChunkTask extends RecursiveTask<Map<String, Object>> {
+        private static final long serialVersionUID = 1L;
+        private final String tomlString;
+        private final int[] starts;
+        private final int from;
+        private final int to;
+
+        ChunkTask(String tomlString, int[] starts, int from, int to) {
+            this.tomlString = tomlString;
+            this.starts = starts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<String, Object> compute() {
+            if (to - from == 1) {
+                return parse(tomlString, starts[from], to == starts.length ? tomlString.length() : starts[to]);
+            }
+            int middle = (from + to) >>> 1;
+            ChunkTask first = new ChunkTask(tomlString, starts, from, middle);
+            first.fork();
+            Map<String, Object> second = new ChunkTask(tomlString, starts, middle, to).compute();
+            Map<String, Object> tables = first.join();
+            merge(tables, second);
+            return tables;
+        }
+    }
+}
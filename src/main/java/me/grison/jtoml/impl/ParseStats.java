@@ -0,0 +1,195 @@
+package me.grison.jtoml.impl;
+
+import me.grison.jtoml.TomlParser;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * What parsing a document cost, reported to {@link TomlMetrics}.
+ * <p>
+ * The size of the document, and the time spent in each phase, are recorded by the built-in parsers while they parse.
+ * A value a parser does not record is -1.
+ *
+ * @author Alexandre Grison
+ */
+public final class ParseStats {
+    /**
+     * The stats of the parse running on the current thread, when metrics are enabled.
+     */
+    private static final ThreadLocal<ParseStats> CURRENT = new ThreadLocal<>();
+
+    private final String parser;
+    private final long start = System.nanoTime();
+    private long nanos = -1;
+    private long characters = -1;
+    private int lines = -1;
+    private int tables = -1;
+    private int keys = -1;
+    private long bytesSaved = -1;
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private ParseStats previous;
+
+    private ParseStats(String parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Starts recording a parse on the current thread, until {@link #stop()} gives the thread back the stats of the
+     * parse this one is nested in, if any.
+     *
+     * @param tomlParser the parser
+     * @return the stats being recorded
+     */
+    static ParseStats start(TomlParser tomlParser) {
+        ParseStats stats = new ParseStats(tomlParser.getClass().getName());
+        stats.previous = CURRENT.get();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Returns the stats being recorded on the current thread.
+     *
+     * @return the stats, <code>null</code> when metrics are disabled
+     */
+    static ParseStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stops recording, restoring the stats of the enclosing parse on the current thread.
+     *
+     * @return these stats
+     */
+    ParseStats stop() {
+        nanos = System.nanoTime() - start;
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+            previous = null;
+        }
+        return this;
+    }
+
+    /**
+     * Records the size of the parsed document.
+     *
+     * @param characters the number of characters
+     * @param lines      the number of lines
+     * @param tables     the number of table headers
+     * @param keys       the number of keys
+     */
+    void document(long characters, int lines, int tables, int keys) {
+        this.characters = characters;
+        this.lines = lines;
+        this.tables = tables;
+        this.keys = keys;
+    }
+
+    /**
+     * Records the bytes saved by the given pool since it reported the given amount, when metrics are enabled.
+     *
+     * @param pool  the string pool of the parse, may be <code>null</code>
+     * @param saved the bytes the pool had saved when the parse started
+     */
+    static void recordBytesSaved(TomlStringPool pool, long saved) {
+        ParseStats stats = pool == null ? null : current();
+        if (stats != null) {
+            stats.bytesSaved = pool.getBytesSaved() - saved;
+        }
+    }
+
+    /**
+     * Records the duration of a phase of the parse.
+     *
+     * @param phase the phase name
+     * @param nanos the duration, in nanoseconds
+     */
+    void phase(String phase, long nanos) {
+        phases.merge(phase, nanos, Long::sum);
+    }
+
+    /**
+     * Returns the class name of the parser.
+     *
+     * @return the parser
+     */
+    public String getParser() {
+        return parser;
+    }
+
+    /**
+     * Returns the duration of the whole parse.
+     *
+     * @return the duration, in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Returns the duration of each phase of the parse, in the order they ran, as recorded by the parser.
+     * {@link SimpleTomlParser} reports <code>prepare</code> (joining multi-line Strings and arrays) and
+     * <code>match</code> (matching lines), {@link ParallelTomlParser} <code>split</code> and <code>chunks</code>.
+     *
+     * @return the durations in nanoseconds, by phase
+     */
+    public Map<String, Long> getPhases() {
+        return Collections.unmodifiableMap(phases);
+    }
+
+    /**
+     * Returns the number of characters of the document.
+     *
+     * @return the number of characters
+     */
+    public long getCharacters() {
+        return characters;
+    }
+
+    /**
+     * Returns the number of lines of the document.
+     *
+     * @return the number of lines
+     */
+    public int getLines() {
+        return lines;
+    }
+
+    /**
+     * Returns the number of table and array of tables headers of the document.
+     *
+     * @return the number of tables
+     */
+    public int getTables() {
+        return tables;
+    }
+
+    /**
+     * Returns the number of keys of the document, table headers excluded.
+     *
+     * @return the number of keys
+     */
+    public int getKeys() {
+        return keys;
+    }
+
+    /**
+     * Returns the estimated bytes saved by the {@link TomlStringPool} of the parser, by sharing keys and String values.
+     * When the pool is shared by concurrent parses, the bytes saved by the others may be included.
+     *
+     * @return the bytes saved, -1 without pool
+     */
+    public long getBytesSaved() {
+        return bytesSaved;
+    }
+
+    @Override
+    public String toString() {
+        return "ParseStats{parser=" + parser + ", nanos=" + nanos + ", phases=" + phases + ", characters=" + characters
+                + ", lines=" + lines + ", tables=" + tables + ", keys=" + keys + ", bytesSaved=" + bytesSaved + "}";
+    }
+}
@@ -0,0 +1,495 @@
+package me.grison.jtoml.impl;
+
+import me.grison.jtoml.Getter;
+import me.grison.jtoml.TomlParser;
+import me.grison.jtoml.TomlPath;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * A TOML file which is parsed again whenever it changes on disk.
+ * <p>
+ * Each parse publishes a new frozen snapshot of the file (see {@link Toml#freeze()}), replacing the previous one at
+ * once: readers never block, and never see a partially reloaded file. A value read through the getters of this class
+ * comes from the snapshot current at the time of the call, {@link #snapshot()} can be used to read many values from
+ * the same snapshot.
+ * <p>
+ * The directory of the file is watched with a {@link WatchService}, and bursts of events (as issued by editors
+ * writing a file in several steps) are coalesced: the file is checked once no event occurred during the debounce
+ * delay. The file is read again only when its size or modification time changed, and parsed again only when its
+ * content hash changed. A file which can not be read or parsed keeps the previous snapshot in place.
+ *
+ * <code>
+ * ReloadingToml config = ReloadingToml.watch(path);
+ * config.addListener((previous, current, changedKeys) -> log.info("Changed: " + changedKeys));
+ * Long port = config.getLong("server.port");
+ * </code>
+ *
+ * @author Alexandre Grison
+ */
+@SuppressWarnings("unchecked")
+public class ReloadingToml implements Getter, Closeable {
+    private static final Logger LOGGER = Logger.getLogger(ReloadingToml.class.getName());
+    /**
+     * Default delay without any event before the file is checked, in milliseconds.
+     */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 100;
+
+    private final Path file;
+    private final TomlParser tomlParser;
+    private final long debounceMillis;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Snapshot snapshot;
+    private WatchService watchService;
+
+    /**
+     * Listener notified after the file was reloaded.
+     */
+    public interface Listener {
+        /**
+         * Called after a new snapshot was published, from the thread which reloaded the file.
+         *
+         * @param previous    the previous snapshot
+         * @param current     the new snapshot
+         * @param changedKeys the dotted keys of the values which were added, removed or changed, in document order
+         */
+        void reloaded(Toml previous, Toml current, Set<String> changedKeys);
+
+        /**
+         * Called when the file changed but could not be read or parsed, the previous snapshot being kept.
+         *
+         * @param error the error
+         */
+        default void failed(RuntimeException error) {
+        }
+    }
+
+    /**
+     * A parsed file and the attributes it was parsed from.
+     */
+    private static final class Snapshot {
+        final Toml toml;
+        final long size;
+        final FileTime lastModified;
+        final long hash;
+
+        Snapshot(Toml toml, long size, FileTime lastModified, long hash) {
+            this.toml = toml;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * Creates an instance loaded with the given file, which is not watched: see {@link #reload()}.
+     *
+     * @param file           the UTF-8 file
+     * @param tomlParser     the parser, <code>null</code> for the default one
+     * @param debounceMillis the delay without any event before the file is checked, once watched
+     * @throws UncheckedIOException     if the file cannot be read
+     * @throws IllegalArgumentException if the file is not valid TOML
+     */
+    public ReloadingToml(Path file, TomlParser tomlParser, long debounceMillis) {
+        this.file = file.toAbsolutePath();
+        this.tomlParser = tomlParser == null ? Toml.defaultParser() : tomlParser;
+        this.debounceMillis = debounceMillis;
+        this.snapshot = load(null);
+    }
+
+    /**
+     * Loads the given file and watches it with the default parser and debounce delay.
+     *
+     * @param file the UTF-8 file
+     * @return the watched file
+     * @throws UncheckedIOException     if the file cannot be read or watched
+     * @throws IllegalArgumentException if the file is not valid TOML
+     */
+    public static ReloadingToml watch(Path file) {
+        return watch(file, null, DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    /**
+     * Loads the given file and watches it.
+     *
+     * @param file           the UTF-8 file
+     * @param tomlParser     the parser, <code>null</code> for the default one
+     * @param debounceMillis the delay without any event before the file is checked
+     * @return the watched file
+     * @throws UncheckedIOException     if the file cannot be read or watched
+     * @throws IllegalArgumentException if the file is not valid TOML
+     */
+    public static ReloadingToml watch(Path file, TomlParser tomlParser, long debounceMillis) {
+        ReloadingToml toml = new ReloadingToml(file, tomlParser, debounceMillis);
+        toml.startWatching();
+        return toml;
+    }
+
+    private synchronized void startWatching() {
+        try {
+            watchService = file.getFileSystem().newWatchService();
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Thread thread = new Thread(this::watchLoop, "jtoml-reload-" + file.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void watchLoop() {
+        WatchService watchService = this.watchService;
+        try {
+            while (true) {
+                if (!isFileEvent(watchService.take())) {
+                    continue;
+                }
+                // wait for the end of the burst
+                WatchKey key;
+                while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    isFileEvent(key);
+                }
+                reloadQuietly();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // closed
+        }
+    }
+
+    private boolean isFileEvent(WatchKey key) {
+        boolean found = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            found |= event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context());
+        }
+        key.reset();
+        return found;
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not reload " + file + ", keeping the previous version", e);
+            for (Listener listener : listeners) {
+                try {
+                    listener.failed(e);
+                } catch (RuntimeException listenerError) {
+                    LOGGER.log(Level.WARNING, "Reload listener of " + file + " failed", listenerError);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks the file now, and publishes a new snapshot if it changed.
+     * An exception thrown by a listener is logged, without preventing the other listeners from being notified.
+     *
+     * @return whether a new snapshot was published
+     * @throws UncheckedIOException     if the file cannot be read
+     * @throws IllegalArgumentException if the file is not valid TOML
+     */
+    public synchronized boolean reload() {
+        Snapshot previous = snapshot;
+        Snapshot current = load(previous);
+        if (current == previous) {
+            return false;
+        }
+        snapshot = current;
+        if (current.toml == previous.toml) {
+            // touched, but same content
+            return false;
+        }
+        Set<String> changedKeys = changedKeys(previous.toml.getMap(""), current.toml.getMap(""));
+        for (Listener listener : listeners) {
+            try {
+                listener.reloaded(previous.toml, current.toml, changedKeys);
+            } catch (RuntimeException e) {
+                // the new snapshot is published anyway, and the next listeners are notified
+                LOGGER.log(Level.WARNING, "Reload listener of " + file + " failed", e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Loads the file if it changed since the given snapshot.
+     *
+     * @param previous the current snapshot, <code>null</code> for the first load
+     * @return the new snapshot, or the given one if the file did not change
+     */
+    private Snapshot load(Snapshot previous) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (previous != null && attributes.size() == previous.size
+                    && attributes.lastModifiedTime().equals(previous.lastModified)) {
+                return previous;
+            }
+            byte[] bytes = Files.readAllBytes(file);
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, bytes.length);
+            long hash = crc.getValue();
+            if (previous != null && hash == previous.hash && bytes.length == previous.size) {
+                return new Snapshot(previous.toml, bytes.length, attributes.lastModifiedTime(), hash);
+            }
+            Toml toml = new FrozenToml(Toml.parse(tomlParser, p -> p.parse(ByteBuffer.wrap(bytes))), tomlParser);
+            return new Snapshot(toml, bytes.length, attributes.lastModifiedTime(), hash);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the dotted keys of the values which differ between two tables: keys of sub-tables are compared one by
+     * one, any other value (including arrays of tables) as a whole.
+     *
+     * @param previous the previous table
+     * @param current  the current table
+     * @return the added, removed and changed keys
+     */
+    static Set<String> changedKeys(Map<String, Object> previous, Map<String, Object> current) {
+        Set<String> changed = new LinkedHashSet<>();
+        changedKeys("", previous, current, changed);
+        return Collections.unmodifiableSet(changed);
+    }
+
+    private static void changedKeys(String prefix, Map<String, Object> previous, Map<String, Object> current,
+                                    Set<String> changed) {
+        for (Map.Entry<String, Object> entry : current.entrySet()) {
+            changedKeys(prefix + entry.getKey(), previous.get(entry.getKey()), entry.getValue(), changed);
+        }
+        for (Map.Entry<String, Object> entry : previous.entrySet()) {
+            if (!current.containsKey(entry.getKey())) {
+                changedKeys(prefix + entry.getKey(), entry.getValue(), null, changed);
+            }
+        }
+    }
+
+    private static void changedKeys(String key, Object previous, Object current, Set<String> changed) {
+        if (previous instanceof Map || current instanceof Map) {
+            changedKeys(key + ".", tableOrEmpty(previous), tableOrEmpty(current), changed);
+            if ((previous == null || previous instanceof Map) && (current == null || current instanceof Map)) {
+                return;
+            }
+        }
+        if (!Objects.equals(previous, current)) {
+            changed.add(key);
+        }
+    }
+
+    private static Map<String, Object> tableOrEmpty(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : Collections.<String, Object>emptyMap();
+    }
+
+    /**
+     * Adds a listener notified after each reload.
+     *
+     * @param listener the listener
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener the listener
+     */
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the current snapshot of the file, which never changes.
+     *
+     * @return the frozen snapshot
+     */
+    public Toml snapshot() {
+        return snapshot.toml;
+    }
+
+    /**
+     * Stops watching the file. The last snapshot remains readable.
+     */
+    @Override
+    public synchronized void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public Object get(String key) {
+        return snapshot().get(key);
+    }
+
+    @Override
+    public String getString(String key) {
+        return snapshot().getString(key);
+    }
+
+    @Override
+    public Long getLong(String key) {
+        return snapshot().getLong(key);
+    }
+
+    @Override
+    public Double getDouble(String key) {
+        return snapshot().getDouble(key);
+    }
+
+    @Override
+    public Calendar getDate(String key) {
+        return snapshot().getDate(key);
+    }
+
+    @Override
+    public OffsetDateTime getOffsetDateTime(String key) {
+        return snapshot().getOffsetDateTime(key);
+    }
+
+    @Override
+    public LocalDateTime getLocalDateTime(String key) {
+        return snapshot().getLocalDateTime(key);
+    }
+
+    @Override
+    public LocalDate getLocalDate(String key) {
+        return snapshot().getLocalDate(key);
+    }
+
+    @Override
+    public LocalTime getLocalTime(String key) {
+        return snapshot().getLocalTime(key);
+    }
+
+    @Override
+    public List<Object> getList(String key) {
+        return snapshot().getList(key);
+    }
+
+    @Override
+    public Boolean getBoolean(String key) {
+        return snapshot().getBoolean(key);
+    }
+
+    @Override
+    public Map<String, Object> getMap(String key) {
+        return snapshot().getMap(key);
+    }
+
+    @Override
+    public long[] getLongArray(String key) {
+        return snapshot().getLongArray(key);
+    }
+
+    @Override
+    public double[] getDoubleArray(String key) {
+        return snapshot().getDoubleArray(key);
+    }
+
+    @Override
+    public boolean[] getBooleanArray(String key) {
+        return snapshot().getBooleanArray(key);
+    }
+
+    @Override
+    public <T> T getAs(String key, Class<T> clazz) {
+        return snapshot().getAs(key, clazz);
+    }
+
+    @Override
+    public Object get(TomlPath path) {
+        return snapshot().get(path);
+    }
+
+    @Override
+    public String getString(TomlPath path) {
+        return snapshot().getString(path);
+    }
+
+    @Override
+    public Long getLong(TomlPath path) {
+        return snapshot().getLong(path);
+    }
+
+    @Override
+    public Double getDouble(TomlPath path) {
+        return snapshot().getDouble(path);
+    }
+
+    @Override
+    public Calendar getDate(TomlPath path) {
+        return snapshot().getDate(path);
+    }
+
+    @Override
+    public OffsetDateTime getOffsetDateTime(TomlPath path) {
+        return snapshot().getOffsetDateTime(path);
+    }
+
+    @Override
+    public LocalDateTime getLocalDateTime(TomlPath path) {
+        return snapshot().getLocalDateTime(path);
+    }
+
+    @Override
+    public LocalDate getLocalDate(TomlPath path) {
+        return snapshot().getLocalDate(path);
+    }
+
+    @Override
+    public LocalTime getLocalTime(TomlPath path) {
+        return snapshot().getLocalTime(path);
+    }
+
+    @Override
+    public List<Object> getList(TomlPath path) {
+        return snapshot().getList(path);
+    }
+
+    @Override
+    public Boolean getBoolean(TomlPath path) {
+        return snapshot().getBoolean(path);
+    }
+
+    @Override
+    public Map<String, Object> getMap(TomlPath path) {
+        return snapshot().getMap(path);
+    }
+
+    @Override
+    public long[] getLongArray(TomlPath path) {
+        return snapshot().getLongArray(path);
+    }
+
+    @Override
+    public double[] getDoubleArray(TomlPath path) {
+        return snapshot().getDoubleArray(path);
+    }
+
+    @Override
+    public boolean[] getBooleanArray(TomlPath path) {
+        return snapshot().getBooleanArray(path);
+    }
+}
@@ -0,0 +1,108 @@
+package me.grison.jtoml.impl;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binds a TOML document to a new instance of a class while reading it, see {@link Toml#parseAs(java.io.Reader, Class)}.
+ * <p>
+ * Table headers and keys are looked up in the trie formed by the {@link ObjectBinder}s of the class and of its nested
+ * classes: the values of known fields are decoded and set as they are read, while the values and tables matching no
+ * field are skipped by the reader without being decoded, so that an invalid number or a mixed array in a skipped
+ * value is not reported. Tables and arrays of tables bound to <code>Map</code> or <code>List</code> fields are built
+ * as by the parsers, and set once the whole document is read.
+ *
+ * @author Alexandre Grison
+ */
+final class SchemaBinder {
+    private SchemaBinder() {
+    }
+
+    /**
+     * Reads the whole document into a new instance of the given class.
+     *
+     * @param reader the reader, positioned before the first event
+     * @param type   the class
+     * @param <T>    the class
+     * @return the new instance
+     * @throws IllegalArgumentException if the document is not valid TOML, or a value does not have the type of its
+     *                                  field
+     */
+    static <T> T parse(TomlReader reader, Class<T> type) {
+        ObjectBinder rootBinder = ObjectBinder.of(type);
+        Object root = rootBinder.bind(null, "");
+        // the tables bound to Map and List fields
+        TomlTreeBuilder tables = new TomlTreeBuilder();
+
+        ObjectBinder binder = rootBinder;
+        Object instance = root;
+        String key = "";
+        Map<String, Object> table = null;
+        for (TomlReader.Event event = reader.next(); event != TomlReader.Event.END_DOCUMENT; event = reader.next()) {
+            switch (event) {
+                case TABLE_START:
+                case ARRAY_TABLE_START:
+                    binder = rootBinder;
+                    instance = root;
+                    key = "";
+                    table = null;
+                    List<String> path = reader.tablePath();
+                    for (int i = 0; i < path.size() && binder != null; i++) {
+                        ObjectBinder.Property property = binder.property(path.get(i));
+                        if (property == null || property.nested && i == path.size() - 1
+                                && event == TomlReader.Event.ARRAY_TABLE_START) {
+                            // skipped up to the next table header
+                            binder = null;
+                        } else if (property.nested) {
+                            key = property.key(key);
+                            instance = property.get(instance);
+                            binder = ObjectBinder.of(property.type);
+                        } else if (property.type == Map.class || property.type == List.class) {
+                            table = event == TomlReader.Event.TABLE_START
+                                    ? tables.createContextIfNeeded(path) : tables.appendArrayTable(path);
+                            break;
+                        } else {
+                            throw mismatch(property, key, "a table", reader.line(), reader.column());
+                        }
+                    }
+                    break;
+                case KEY:
+                    String name = reader.stringValue();
+                    if (table != null) {
+                        table.put(name, tables.readEntryValue(reader));
+                        break;
+                    }
+                    ObjectBinder.Property property = binder == null ? null : binder.property(name);
+                    if (property == null || property.nested) {
+                        skip(reader);
+                        break;
+                    }
+                    TomlReader.Event valueEvent = reader.next();
+                    int line = reader.line(), column = reader.column();
+                    Object value = tables.readValue(reader, valueEvent);
+                    if (!property.accepts(value)) {
+                        throw mismatch(property, key, "`" + value + "`", line, column);
+                    }
+                    property.set(instance, property.convert(value, key));
+                    break;
+                default:
+                    throw reader.error("Unexpected " + event);
+            }
+        }
+        rootBinder.bindInto(root, tables.root(), "");
+        return type.cast(root);
+    }
+
+    private static void skip(TomlReader reader) {
+        // numbers are only delimited, as for a lazy parse
+        reader.scanOnly = true;
+        reader.skipValue();
+        reader.scanOnly = false;
+    }
+
+    private static IllegalArgumentException mismatch(ObjectBinder.Property property, String key, String value,
+                                                     int line, int column) {
+        return TomlReader.error("Value for key `" + property.key(key) + "` is " + value + ", expected type was `"
+                + property.type.getName() + "`", line, column);
+    }
+}
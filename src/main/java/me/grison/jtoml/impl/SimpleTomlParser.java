@@ -4,6 +4,8 @@ import me.grison.jtoml.TomlParser;
 import me.grison.jtoml.Util;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -12,6 +14,11 @@ import java.util.regex.Pattern;
  * <p>
  * Uses a first pass to make multi-line arrays one-liner, then iterate line by line, matching against known regular expressions,
  * to extract content and store it into a context map.
+ * <p>
+ * Instances hold no parsing state (every parse creates its own {@link Matcher}s), so a single instance can be used
+ * by several threads at once.
+ * <p>
+ * Keys and String values repeated within or across documents can be shared through a {@link TomlStringPool}.
  *
  * @author Alexandre Grison
  */
@@ -22,7 +29,7 @@ public class SimpleTomlParser implements TomlParser {
     private static final String POSSIBLE_COMMENT = "(#.*)?";
     private static final String KEY_EQUALS = "(" + SPACES + "(\\w[a-zA-Z_0-9\\-]*)" + SPACES + "=" + SPACES + ")?";
     private static final String ARRAY = SPACES + "\\[" + SPACES + "(.*)" + SPACES + "]" + SPACES;
-    private static final String DATE = "(\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}.*)";
+    private static final String DATE = "(\\d{4}-\\d{2}-\\d{2}(?:[Tt ]\\d{2}:\\d{2}:\\d{2}[^\\s#,\\]]*)?|\\d{2}:\\d{2}:\\d{2}[^\\s#,\\]]*)";
     private static final String DOUBLE = "([-+]?\\d*\\.\\d+([eE][-+]?\\d+)?)";
     private static final String DIGITS = "(-?\\d+)";
     private static final String STRING = "\"(.*)\"";
@@ -36,23 +43,18 @@ public class SimpleTomlParser implements TomlParser {
     private static final Pattern LINES_PATTERN = Pattern.compile("([^\n]+)\n?");
     private static final Pattern ML_STRING_PATTERN = Pattern.compile("\"\"\"(.*?)\"\"\"", Pattern.DOTALL);
     private static final Pattern ML_LITERAL_STRING_PATTERN = Pattern.compile(ML_LITERAL_STRING, Pattern.DOTALL);
-    // Current instance matchers
-    private final Matcher arrayLineMatcher = ARRAY_LINE_PATTERN.matcher("");
-    private final Matcher groupMatcher = GROUP_PATTERN.matcher("");
-    private final Matcher commentMatcher = COMMENT_PATTERN.matcher("");
-    private final Matcher lineMatcher = LINES_PATTERN.matcher("");
     // This is used to simulate a newline in a multi-line literal string where nothing can be escaped
-    private final String multiLineLiteralStringNewLine = UUID.randomUUID().toString();
+    private static final String ML_LITERAL_STRING_NEW_LINE = UUID.randomUUID().toString();
     /**
-     * The list of handlers
+     * The list of handlers, stateless and shared by every instance
      */
-    private final List<Handler> handlers = new ArrayList<Handler>() {{
+    private static final List<Handler> HANDLERS = Collections.unmodifiableList(new ArrayList<Handler>() {{
         // dates
-        add(new Handler(KEY_EQUALS + DATE) {
+        add(new Handler(KEY_EQUALS + DATE + SPACES + POSSIBLE_COMMENT) {
             Object cast(String v) {
                 try {
-                    return Util.ISO8601.toCalendar(v);
-                } catch (Exception e) {
+                    return Util.ISO8601.parse(v);
+                } catch (IllegalArgumentException e) {
                     return null;
                 }
             }
@@ -78,7 +80,7 @@ public class SimpleTomlParser implements TomlParser {
         // literal strings
         add(new Handler(KEY_EQUALS + ML_LITERAL_STRING + SPACES) {
             Object cast(String v) {
-                return v.replaceAll(multiLineLiteralStringNewLine, "\n");
+                return v.replaceAll(ML_LITERAL_STRING_NEW_LINE, "\n");
             }
         });
         add(new Handler(KEY_EQUALS + LITERAL_STRING + SPACES) {
@@ -92,16 +94,54 @@ public class SimpleTomlParser implements TomlParser {
                 return Boolean.parseBoolean(v);
             }
         });
-    }};
+    }});
+
+    private final Supplier<? extends TomlStringPool> pools;
+
+    /**
+     * Creates a parser keeping the Strings matched in the document.
+     */
+    public SimpleTomlParser() {
+        this(null);
+    }
+
+    /**
+     * Creates a parser replacing the keys and String values matched in the document by those of a pool.
+     * The given supplier is called once per parse, and may return a new pool or a shared, thread-safe one.
+     *
+     * @param pools the supplier of pools, <code>null</code> for no pool
+     */
+    public SimpleTomlParser(Supplier<? extends TomlStringPool> pools) {
+        this.pools = pools;
+    }
 
     @Override
     public Map<String, Object> parse(String tomlString) {
+        ParseStats stats = ParseStats.current();
+        long start = stats == null ? 0 : System.nanoTime();
+        int length = tomlString.length(), tables = 0, keys = 0;
         Map<String, Object> result = new LinkedHashMap<>();
         Map<String, Object> context = result;
+        TomlStringPool pool = pools == null ? null : pools.get();
+        long saved = pool == null ? 0 : pool.getBytesSaved();
+        if (stats != null) {
+            stats.document(length, lines(tomlString), -1, -1);
+        }
+        if (tomlString.indexOf('\r') >= 0) {
+            // the pre-passes and line patterns only know LF newlines
+            tomlString = tomlString.replace("\r\n", "\n");
+        }
         tomlString = prepareMultiLineStrings(tomlString);
         tomlString = prepareArrays(tomlString);
+        if (stats != null) {
+            long now = System.nanoTime();
+            stats.phase("prepare", now - start);
+            start = now;
+        }
         // match lines
-        lineMatcher.reset(tomlString);
+        Matcher lineMatcher = LINES_PATTERN.matcher(tomlString);
+        Matcher commentMatcher = COMMENT_PATTERN.matcher("");
+        Matcher groupMatcher = GROUP_PATTERN.matcher("");
         while (lineMatcher.find()) {
             String line = lineMatcher.group().trim();
             if (commentMatcher.reset(line).find()) {
@@ -109,14 +149,48 @@ public class SimpleTomlParser implements TomlParser {
             }
             if (groupMatcher.reset(line).matches()) {
                 context = createContextIfNeeded(result, groupMatcher.group(1));
+                tables++;
             }
             Object[] val = readObject(line);
-            if (val != null && val[0] != null)
+            if (val != null && val[0] != null) {
+                if (pool != null) {
+                    intern(val, pool);
+                }
                 context.put((String) val[0], val[1]);
+                keys++;
+            }
+        }
+        ParseStats.recordBytesSaved(pool, saved);
+        if (stats != null) {
+            stats.phase("match", System.nanoTime() - start);
+            stats.document(length, stats.getLines(), tables, keys);
         }
         return result;
     }
 
+    /**
+     * Replaces the key and the String values of the given key/value pair by those of the given pool.
+     */
+    private static void intern(Object[] keyValue, TomlStringPool pool) {
+        keyValue[0] = pool.intern((String) keyValue[0]);
+        if (keyValue[1] instanceof String) {
+            keyValue[1] = pool.intern((String) keyValue[1]);
+        } else if (keyValue[1] instanceof ArrayList) {
+            ((List<Object>) keyValue[1]).replaceAll(v -> v instanceof String ? pool.intern((String) v) : v);
+        }
+    }
+
+    /**
+     * Counts the lines of the given String, a last empty line excepted.
+     */
+    private static int lines(String s) {
+        int lines = s.isEmpty() || s.endsWith("\n") ? 0 : 1;
+        for (int i = s.indexOf('\n'); i >= 0; i = s.indexOf('\n', i + 1)) {
+            lines++;
+        }
+        return lines;
+    }
+
     /**
      * Find every arrays in the given String and make them one liner.
      * prepareArrays('foo = [\n 1, 2, 3,\n 4,\n 5, #this is ok\n ]')
@@ -166,7 +240,7 @@ public class SimpleTomlParser implements TomlParser {
         b = new StringBuffer();
         while (m.find()) {
             String inside = m.group(1);
-            String replacement = (inside.startsWith("\n") ? inside.substring(1) : inside).replaceAll("\n", multiLineLiteralStringNewLine);
+            String replacement = (inside.startsWith("\n") ? inside.substring(1) : inside).replaceAll("\n", ML_LITERAL_STRING_NEW_LINE);
             m.appendReplacement(b, "'''" + replacement.replaceAll("\\\\", "\\\\\\\\") + "'''");
         }
         m.appendTail(b);
@@ -205,15 +279,17 @@ public class SimpleTomlParser implements TomlParser {
      * @param line the line where to extract key/value
      */
     private Object[] readObject(String line) {
-        for (Handler handler : this.handlers) {
-            if (handler.matcher().reset(line).matches()) {
-                String key = handler.matcher().group(2);
-                Object value = handler.cast(handler.matcher().group(3));
+        for (Handler handler : HANDLERS) {
+            Matcher matcher = handler.matcher(line);
+            if (matcher.matches()) {
+                String key = matcher.group(2);
+                Object value = handler.cast(matcher.group(3));
                 return new Object[]{key, value};
             }
         }
         // it might be an array
-        if (arrayLineMatcher.reset(line).matches()) {
+        Matcher arrayLineMatcher = ARRAY_LINE_PATTERN.matcher(line);
+        if (arrayLineMatcher.matches()) {
             String key = arrayLineMatcher.group(2);
             String array = arrayLineMatcher.group(3);
             List<Object> values = new ArrayList<>();
@@ -236,42 +312,51 @@ public class SimpleTomlParser implements TomlParser {
                 }
             }
             // Check all values have the same type
-            if (values.size() > 0) {
-                Set<Class<?>> types = new HashSet<>();
-                for (Object o : values) {
-                    types.add(o.getClass());
-                }
-                if (types.size() > 1) {
+            Class<?> type = values.isEmpty() ? null : typeOf(values.get(0));
+            for (Object o : values) {
+                if (typeOf(o) != type) {
                     throw new IllegalArgumentException("Inconsistent types found while parsing array. " + //
-                            "Found all the following types in the same array declaration: " + types);
+                            "Found all the following types in the same array declaration: " + Arrays.asList(type, typeOf(o)));
                 }
             }
-            //System.out.println("------> " + key + "=" + values);
+            // store numbers and booleans unboxed
+            if (type == Long.class) {
+                return new Object[]{key, LongList.copyOf(values)};
+            } else if (type == Double.class) {
+                return new Object[]{key, DoubleList.copyOf(values)};
+            } else if (type == Boolean.class) {
+                return new Object[]{key, BooleanList.copyOf(values)};
+            }
             return new Object[]{key, values};
         }
         return null;
     }
 
     /**
-     * Encapsulate both a Matcher and a method to cast the retrieved value to the according type.
+     * Get the type of the given array value, all nested arrays having the same type whatever their content.
+     */
+    private static Class<?> typeOf(Object value) {
+        return value instanceof List ? List.class : value.getClass();
+    }
+
+    /**
+     * Encapsulate both a Pattern and a method to cast the retrieved value to the according type.
      */
     static abstract class Handler {
-        // Keep them to avoid recreating it. Patterns are thread safe
-        static final Map<String, Pattern> PATTERNS = new HashMap<>();
-        final Matcher matcher;
+        // Keep them to avoid recreating it. Patterns are thread safe, Matchers are not
+        static final Map<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+        final Pattern pattern;
 
         public Handler(String regex) {
-            this.matcher = getPattern(regex).matcher("");
+            this.pattern = getPattern(regex);
         }
 
         public Pattern getPattern(String regex) {
-            if (!PATTERNS.containsKey(regex))
-                PATTERNS.put(regex, Pattern.compile(regex));
-            return PATTERNS.get(regex);
+            return PATTERNS.computeIfAbsent(regex, Pattern::compile);
         }
 
-        Matcher matcher() {
-            return this.matcher;
+        Matcher matcher(String input) {
+            return this.pattern.matcher(input);
         }
 
         abstract Object cast(String v);
@@ -3,7 +3,11 @@ package me.grison.jtoml.impl;
 import me.grison.jtoml.TomlSerializer;
 import me.grison.jtoml.Util;
 
-import java.lang.reflect.Field;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.time.temporal.TemporalAccessor;
 import java.util.*;
 
 /**
@@ -25,85 +29,290 @@ public class SimpleTomlSerializer implements TomlSerializer {
         return serialize(null, object);
     }
 
-    private String serializeList(List<?> list) {
-        StringBuilder buffer = new StringBuilder("[");
-        final StringBuilder ibuff = new StringBuilder();
+    @Override
+    public String serialize(String rootKey, Object object) {
+        StringBuilder buffer = new StringBuilder();
+        try {
+            serialize(rootKey, object, buffer);
+        } catch (IOException e) {
+            // a StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toString();
+    }
+
+    private void serializeList(List<?> list, Output out) throws IOException {
+        out.append('[');
+        if (list instanceof LongList) {
+            // no boxing, no String per value
+            LongList longs = (LongList) list;
+            for (int i = 0; i < longs.size(); i++) {
+                separate(i == 0, out);
+                out.append(longs.getLong(i));
+            }
+            out.append(']');
+            return;
+        }
+        boolean first = true;
         for (Object item : list) {
             if (item instanceof List) {
-                ibuff.append(", ").append(serializeList((List<?>) item));
+                first = separate(first, out);
+                serializeList((List<?>) item, out);
+            } else if (item instanceof Map) {
+                throw new IllegalArgumentException("Tables can only be serialized as an array of tables, not inside "
+                        + "an array.");
             } else if (Util.Reflection.isTomlSupportedType(item.getClass())) {
-                if (converters.containsKey(item.getClass())) {
-                    ibuff.append(", ").append(converters.get(item.getClass()).convert(item));
-                } else {
-                    ibuff.append(", ").append(item);
-                }
+                first = separate(first, out);
+                writeValue(item, converter(item.getClass()), out);
             }
         }
-        if (ibuff.length() > 0) {
-            buffer.append(ibuff.substring(2));
+        out.append(']');
+    }
+
+    /**
+     * Write the given value, converted by the given converter if any. Strings are escaped, longs and dates are
+     * formatted straight to the output.
+     */
+    private void writeValue(Object value, Converter converter, Output out) throws IOException {
+        if (value instanceof String && converter == converters.get(String.class)) {
+            out.append('"');
+            Util.TomlString.escape((String) value, out);
+            out.append('"');
+        } else if (value instanceof Long && converter == null) {
+            out.append(((Long) value).longValue());
+        } else if (value instanceof TemporalAccessor && converter == null) {
+            Util.ISO8601.format((TemporalAccessor) value, out);
+        } else {
+            out.append(converter != null ? converter.convert(value) : String.valueOf(value));
+        }
+    }
+
+    private static boolean separate(boolean first, Output out) throws IOException {
+        if (!first) {
+            out.append(", ");
+        }
+        return false;
+    }
+
+    /**
+     * Returns the given key as written in TOML: as it is when it is a bare key, quoted otherwise.
+     *
+     * @param name the key
+     * @return the bare or quoted key
+     */
+    static String key(String name) {
+        boolean bare = !name.isEmpty();
+        for (int i = 0; i < name.length() && bare; i++) {
+            char c = name.charAt(i);
+            bare = c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_' || c == '-';
+        }
+        return bare ? name : "\"" + Util.TomlString.escape(name) + "\"";
+    }
+
+    private static String path(String rootKey, String name) {
+        return rootKey == null ? key(name) : rootKey + "." + key(name);
+    }
+
+    private static void header(String rootKey, Output out) throws IOException {
+        if (rootKey != null) {
+            out.append('[').append(rootKey).append("]\n");
+        }
+    }
+
+    /**
+     * Returns whether the given list is an array of tables, written as <code>[[key]]</code> sections.
+     */
+    private static boolean isArrayOfTables(List<?> list) {
+        if (list.isEmpty()) {
+            return false;
+        }
+        for (Object item : list) {
+            if (!(item instanceof Map)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void serializeArrayOfTables(String key, List<?> tables, Output out) throws IOException {
+        for (Object table : tables) {
+            out.append("\n[[").append(key).append("]]\n");
+            serializeEntries(key, (Map<String, Object>) table, out);
         }
-        buffer.append("]");
-        return buffer.toString();
     }
 
-    private String serializeMap(String rootKey, Map<String, Object> map) {
-        final StringBuilder buffer = new StringBuilder(rootKey == null ? "" : "[" + rootKey + "]\n");
+    private void serializeMap(String rootKey, Map<String, Object> map, Output out) throws IOException {
+        header(rootKey, out);
+        serializeEntries(rootKey, map, out);
+    }
+
+    private void serializeEntries(String rootKey, Map<String, Object> map, Output out) throws IOException {
+        // written last, so that no value of the table follows their sections
+        Map<String, List<?>> arraysOfTables = null;
         for (Map.Entry<String, Object> entry : map.entrySet()) {
             String name = entry.getKey();
-            String nextRootKey = rootKey == null ? name : rootKey + "." + name;
             Class<?> type = entry.getValue().getClass();
             Object value = entry.getValue();
-            if (value instanceof List) {
-                buffer.append(name).append(" = ").append(serializeList((List<?>) value)).append("\n");
-            } else if (Util.Reflection.isTomlSupportedTypeExceptMap(type)) {
-                if (converters.containsKey(type)) {
-                    value = converters.get(type).convert(value);
+            if (value instanceof List && isArrayOfTables((List<?>) value)) {
+                if (arraysOfTables == null) {
+                    arraysOfTables = new LinkedHashMap<>();
                 }
-                buffer.append(name).append(" = ").append(value).append("\n");
+                arraysOfTables.put(path(rootKey, name), (List<?>) value);
+            } else if (value instanceof List) {
+                out.append(key(name)).append(" = ");
+                serializeList((List<?>) value, out);
+                out.append('\n');
+            } else if (Util.Reflection.isTomlSupportedTypeExceptMap(type)) {
+                out.append(key(name)).append(" = ");
+                writeValue(value, converter(type), out);
+                out.append('\n');
             } else if (value instanceof Map) {
-                buffer.append("\n").append(serializeMap(nextRootKey, (Map<String, Object>) value));
+                out.append('\n');
+                serializeMap(path(rootKey, name), (Map<String, Object>) value, out);
             } else {
-                buffer.append("\n").append(serialize(nextRootKey, value));
+                out.append('\n');
+                serialize(path(rootKey, name), value, out);
+            }
+        }
+        if (arraysOfTables != null) {
+            for (Map.Entry<String, List<?>> entry : arraysOfTables.entrySet()) {
+                serializeArrayOfTables(entry.getKey(), entry.getValue(), out);
             }
         }
-        return buffer.toString();
     }
 
+    /**
+     * Serializes the given Object as TOML, written piece by piece to the given Appendable without building any
+     * intermediate String.
+     *
+     * @param rootKey the root key (can be empty or null)
+     * @param object  the Object to be serialized
+     * @param out     where to write the TOML
+     * @throws IOException if the TOML cannot be written
+     */
     @Override
-    public String serialize(String rootKey, Object object) {
+    public void serialize(String rootKey, Object object, Appendable out) throws IOException {
+        serialize(rootKey, object, out instanceof Output ? (Output) out : new Output(out));
+    }
+
+    private void serialize(String rootKey, Object object, Output out) throws IOException {
         try {
             if (object instanceof Map) {
-                return serializeMap(rootKey, (Map<String, Object>) object);
+                serializeMap(rootKey, (Map<String, Object>) object, out);
+                return;
             }
-            final StringBuilder buffer = new StringBuilder(rootKey == null ? "" : "[" + rootKey + "]\n");
+            header(rootKey, out);
             // simple types first
             if (converters.containsKey(object.getClass())) {
-                buffer.append(converters.get(object.getClass()).convert(object));
-                return buffer.toString();
+                out.append(converters.get(object.getClass()).convert(object));
+                return;
+            }
+
+            // written last, so that no value of the object follows their sections
+            Map<String, List<?>> arraysOfTables = null;
+            for (WritePlan.Property property : WritePlan.of(object.getClass()).properties) {
+                Object value = property.get(object);
+                switch (property.kind) {
+                    case LIST:
+                        if (isArrayOfTables((List<?>) value)) {
+                            if (arraysOfTables == null) {
+                                arraysOfTables = new LinkedHashMap<>();
+                            }
+                            arraysOfTables.put(rootKey + "." + property.key, (List<?>) value);
+                            break;
+                        }
+                        out.append(property.assignment);
+                        serializeList((List<?>) value, out);
+                        out.append('\n');
+                        break;
+                    case VALUE:
+                        out.append(property.assignment);
+                        writeValue(value, converters.get(property.type), out);
+                        out.append('\n');
+                        break;
+                    default:
+                        out.append('\n');
+                        serialize(rootKey + "." + property.key, value, out);
+                }
             }
-            
-            final List<Field> fields = Arrays.asList(object.getClass().getDeclaredFields());
-            fields.sort(Util.Reflection.newTomlFieldComparator(fields));
-            for (Field f : fields) {
-                Class<?> type = f.getType();
-                Object value = Util.Reflection.getFieldValue(f, object);
-                if (type.equals(List.class)) {
-                    buffer.append(f.getName()).append(" = ").append(serializeList((List<?>) value)).append("\n");
-                } else if (Util.Reflection.isTomlSupportedTypeExceptMap(type)) {
-                    if (converters.containsKey(type)) {
-                        value = converters.get(type).convert(value);
-                    }
-                    buffer.append(f.getName()).append(" = ").append(value).append("\n");
-                } else {
-                    buffer.append("\n").append(serialize(rootKey + "." + f.getName(), value));
+            if (arraysOfTables != null) {
+                for (Map.Entry<String, List<?>> entry : arraysOfTables.entrySet()) {
+                    serializeArrayOfTables(entry.getKey(), entry.getValue(), out);
                 }
             }
-            return buffer.toString();
+        } catch (IOException e) {
+            throw e;
         } catch (Throwable e) {
             throw new IllegalArgumentException("Could not serialize object with rootKey `" + rootKey + "`.", e);
         }
     }
 
+    /**
+     * Get the converter for the given type, if any.
+     *
+     * @param type the type
+     * @return the converter, <code>null</code> if none
+     */
+    private Converter converter(Class<?> type) {
+        return Calendar.class.isAssignableFrom(type) ? converters.get(Calendar.class) : converters.get(type);
+    }
+
+    /**
+     * Wraps the output of a serialization, writing numbers through a reusable buffer and avoiding the intermediate
+     * Strings {@link Writer#append(CharSequence, int, int)} creates.
+     */
+    private static final class Output implements Appendable {
+        private final Appendable out;
+        private final Writer writer;
+        private final char[] digits = new char[20];
+        private final CharBuffer digitsView = CharBuffer.wrap(digits);
+
+        Output(Appendable out) {
+            this.out = out;
+            this.writer = out instanceof Writer ? (Writer) out : null;
+        }
+
+        @Override
+        public Output append(CharSequence csq) throws IOException {
+            out.append(csq);
+            return this;
+        }
+
+        @Override
+        public Output append(CharSequence csq, int start, int end) throws IOException {
+            if (writer != null && csq instanceof String) {
+                writer.write((String) csq, start, end - start);
+            } else {
+                out.append(csq, start, end);
+            }
+            return this;
+        }
+
+        @Override
+        public Output append(char c) throws IOException {
+            out.append(c);
+            return this;
+        }
+
+        Output append(long value) throws IOException {
+            int start = digits.length;
+            long n = value < 0 ? value : -value;
+            do {
+                digits[--start] = (char) ('0' - n % 10);
+                n /= 10;
+            } while (n != 0);
+            if (value < 0) {
+                digits[--start] = '-';
+            }
+            if (writer != null) {
+                writer.write(digits, start, digits.length - start);
+            } else {
+                out.append(digitsView, start, digits.length);
+            }
+            return this;
+        }
+    }
+
     interface Converter {
         String convert(Object o);
     }
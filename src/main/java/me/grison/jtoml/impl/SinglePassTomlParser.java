@@ -0,0 +1,104 @@
+package me.grison.jtoml.impl;
+
+import me.grison.jtoml.TomlParser;
+
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Single-pass Toml parser.
+ * <p>
+ * Builds the context map from the events of a {@link TomlReader}, which reads the TOML source character by character:
+ * no regular expression and no intermediate copy of the document are involved. Sources are consumed through a bounded
+ * window of characters, so that parsing a {@link Reader} never holds the whole document in memory, and a
+ * {@link ByteBuffer} (such as a memory-mapped file) is decoded into that window as parsing goes. The resulting context
+ * map has the same shape than the one built by {@link SimpleTomlParser}.
+ * <p>
+ * Keys and String values repeated within or across documents can be shared through a {@link TomlStringPool}.
+ * <p>
+ * The window, the token text and the scratch arrays are recycled from one parse to the next through a
+ * {@link TomlParseContext}: the one of the current thread, or the one given to {@link #parse(String, TomlParseContext)}.
+ *
+ * @author Alexandre Grison
+ */
+public class SinglePassTomlParser implements TomlParser {
+    private final Supplier<? extends TomlStringPool> pools;
+
+    /**
+     * Creates a parser creating a new String for each key and String value.
+     */
+    public SinglePassTomlParser() {
+        this(null);
+    }
+
+    /**
+     * Creates a parser taking keys and String values from a pool.
+     * The given supplier is called once per parse, and may return a new pool or a shared, thread-safe one.
+     *
+     * @param pools the supplier of pools, <code>null</code> for no pool
+     */
+    public SinglePassTomlParser(Supplier<? extends TomlStringPool> pools) {
+        this.pools = pools;
+    }
+
+    @Override
+    public Map<String, Object> parse(String tomlString) {
+        TomlParseContext parseContext = TomlParseContext.current();
+        try {
+            return parse(TomlInput.of(tomlString, parseContext), parseContext);
+        } finally {
+            parseContext.release();
+        }
+    }
+
+    /**
+     * Parses the given TOML String, recycling the buffers of the given context rather than those of the current
+     * thread.
+     *
+     * @param tomlString   the TOML String
+     * @param parseContext the context, used by a single thread at a time
+     * @return a Map representing the given TOML structure.
+     */
+    public Map<String, Object> parse(String tomlString, TomlParseContext parseContext) {
+        parseContext = parseContext.acquire();
+        try {
+            return parse(TomlInput.of(tomlString, parseContext), parseContext);
+        } finally {
+            parseContext.release();
+        }
+    }
+
+    @Override
+    public Map<String, Object> parse(Reader reader) {
+        TomlParseContext parseContext = TomlParseContext.current();
+        try {
+            return parse(TomlInput.of(reader, parseContext), parseContext);
+        } finally {
+            parseContext.release();
+        }
+    }
+
+    @Override
+    public Map<String, Object> parse(ByteBuffer buffer) {
+        TomlParseContext parseContext = TomlParseContext.current();
+        try {
+            return parse(TomlInput.of(buffer, parseContext), parseContext);
+        } finally {
+            parseContext.release();
+        }
+    }
+
+    private Map<String, Object> parse(TomlInput input, TomlParseContext parseContext) {
+        TomlReader reader = new TomlReader(input, null, parseContext);
+        TomlStringPool pool = pools == null ? null : pools.get();
+        long saved = pool == null ? 0 : pool.getBytesSaved();
+        reader.pool = pool;
+        TomlTreeBuilder builder = new TomlTreeBuilder(parseContext);
+        Map<String, Object> context = builder.build(reader);
+        builder.record(reader);
+        ParseStats.recordBytesSaved(pool, saved);
+        return context;
+    }
+}
@@ -2,14 +2,23 @@ package me.grison.jtoml.impl;
 
 import me.grison.jtoml.*;
 
-import java.io.File;
-import java.io.IOException;
-import java.lang.reflect.Field;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.temporal.Temporal;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Toml parsing class front-end.
@@ -18,6 +27,8 @@ import java.util.regex.Pattern;
  * Toml toml = Toml.parse("pi = 3.141592653589793");
  * Double pi = toml.getDouble("pi");
  * </code>
+ * <p>
+ * Once parsed, an instance can be shared and read by any number of threads without synchronization.
  *
  * @author Alexandre Grison
  */
@@ -32,23 +43,43 @@ public class Toml implements Parser, Getter {
      * Current instance serializer
      */
     private static final TomlSerializer tomlSerializer = new SimpleTomlSerializer();
+    /**
+     * Files from this size are memory-mapped rather than read, see {@link #parse(Path, TomlParser)}.
+     */
+    static final long MAPPING_THRESHOLD = 1024 * 1024;
+    /**
+     * Number of slots of {@link #PATHS}, a power of 2.
+     */
+    private static final int PATHS_CACHE_SIZE = 1024;
+    /**
+     * Already parsed String keys, shared by every instance: each key is kept in the slot indexed by its hash,
+     * replacing the previous key of its slot, so that the cache never grows. Entries being immutable, a slot is
+     * read and written without any lock.
+     */
+    private static final CachedPath[] PATHS = new CachedPath[PATHS_CACHE_SIZE];
+    /**
+     * Metrics of every instance, see {@link #setMetrics(TomlMetrics)}.
+     */
+    private static volatile TomlMetrics metrics = TomlMetrics.NONE;
 
     static {
         initDefaultParser();
     }
 
     /**
-     * A matcher to retrieve the path to a key.
-     */
-    protected final Matcher keyPathMatcher = Pattern.compile("((\\w+[.])+).*").matcher("");
-    /**
-     * The instance context map holding key/values parsed from a TOML String or File
+     * The instance context map holding key/values parsed from a TOML String or File.
+     * A parsed context is never modified afterwards, it is only replaced by the next parse: being volatile, it is
+     * safely published to threads reading this instance concurrently without any lock.
      */
-    protected Map<String, Object> context = new LinkedHashMap<>();
+    protected volatile Map<String, Object> context = new LinkedHashMap<>();
     /**
      * Current instance parser: default to `Toml.defaultParser` if none specified
      */
     protected TomlParser tomlParser;
+    /**
+     * The sections of the document when parsed by {@link #reparse(Toml, String)}, reused by the next reparse.
+     */
+    private volatile TomlSections sections;
 
     /**
      * Default constructor.
@@ -87,6 +118,46 @@ public class Toml implements Parser, Getter {
         return new Toml(tomlParser).parseString(tomlString);
     }
 
+    /**
+     * Creates a TOML instance loaded with the given String, an edited version of the previous document: only the
+     * sections of the String (the keys before the first table, and each top-level table header with its keys) which
+     * changed are parsed, the tables of the unchanged ones are shared with the previous document.
+     * <p>
+     * The previous document must itself come from this method for its sections to be reused, otherwise the whole
+     * String is parsed, as for the first version of a document. Sections are always parsed by the single-pass parser.
+     * <p>
+     * As its tables may be shared with other documents, the resulting document is read-only, as if frozen (see
+     * {@link #freeze()}).
+     *
+     * <code>
+     * Toml config = Toml.reparse(null, text);
+     * config = Toml.reparse(config, editedText);
+     * </code>
+     *
+     * @param previous   the previous version of the document, may be <code>null</code>
+     * @param tomlString the TOML String to load
+     * @return a TOML object instance
+     */
+    public static Toml reparse(Toml previous, String tomlString) {
+        TomlSections reusable = previous == null ? null : previous.sections;
+        if (reusable != null && reusable.context != previous.context) {
+            // parsed again since
+            reusable = null;
+        }
+        TomlParser tomlParser = previous == null ? null : previous.tomlParser;
+        try {
+            TomlSections sections = TomlSections.parse(tomlString, reusable);
+            Toml toml = FrozenToml.readOnly(sections.merge(), tomlParser);
+            toml.sections = sections;
+            return toml;
+        } catch (IllegalArgumentException e) {
+            // invalid or conflicting sections: parse the whole document to report the error with its actual line, or
+            // to resolve the keys in document order
+            Map<String, Object> context = new TomlTreeBuilder().build(new TomlReader(tomlString));
+            return FrozenToml.readOnly((Map<String, Object>) FrozenToml.freeze(context), tomlParser);
+        }
+    }
+
     /**
      * Creates a TOML instance loaded with the given file.
      *
@@ -108,6 +179,239 @@ public class Toml implements Parser, Getter {
         return new Toml(tomlParser).parseFile(file);
     }
 
+    /**
+     * Creates a TOML instance loaded with the content of the given Reader, which is not closed.
+     *
+     * @param reader the Reader to load
+     * @return a TOML object instance
+     * @throws UncheckedIOException if the reader cannot be read
+     */
+    public static Toml parse(Reader reader) {
+        return parse(reader, null);
+    }
+
+    /**
+     * Creates a TOML instance loaded with the content of the given Reader, which is not closed, and using the given
+     * TOML parser.
+     *
+     * @param reader     the Reader to load
+     * @param tomlParser the TOML parser to use
+     * @return a TOML object instance
+     * @throws UncheckedIOException if the reader cannot be read
+     */
+    public static Toml parse(Reader reader, TomlParser tomlParser) {
+        return new Toml(tomlParser).parseReader(reader);
+    }
+
+    /**
+     * Reads the given Reader, which is not closed, straight into a new instance of the given class, as
+     * <code>Toml.parse(reader).getAs("", clazz)</code> would, but in a single pass.
+     * <p>
+     * The fields of the class and of its nested classes are resolved once per class, and looked up as keys and table
+     * headers are read: values are set as soon as they are read, tables and values matching no field are skipped
+     * without being decoded. A value which does not have the type of its field is reported with its line and column.
+     *
+     * <code>
+     * Config config = Toml.parseAs(reader, Config.class);
+     * </code>
+     *
+     * @param reader the Reader to be parsed
+     * @param clazz  the class of the resulting object
+     * @param <T>    the resulting object type
+     * @return the new instance
+     * @throws IllegalArgumentException if the document is not valid TOML, if a value does not have the type of its
+     *                                  field, or if the class cannot be bound
+     * @throws UncheckedIOException     if the reader cannot be read
+     */
+    public static <T> T parseAs(Reader reader, Class<T> clazz) {
+        return SchemaBinder.parse(new TomlReader(reader), clazz);
+    }
+
+    /**
+     * Creates a TOML instance loaded with the UTF-8 content of the given InputStream, which is not closed.
+     *
+     * @param inputStream the InputStream to load
+     * @return a TOML object instance
+     * @throws UncheckedIOException if the stream cannot be read
+     */
+    public static Toml parse(InputStream inputStream) {
+        return parse(inputStream, null);
+    }
+
+    /**
+     * Creates a TOML instance loaded with the UTF-8 content of the given InputStream, which is not closed, and using
+     * the given TOML parser.
+     *
+     * @param inputStream the InputStream to load
+     * @param tomlParser  the TOML parser to use
+     * @return a TOML object instance
+     * @throws UncheckedIOException if the stream cannot be read
+     */
+    public static Toml parse(InputStream inputStream, TomlParser tomlParser) {
+        return parse(new InputStreamReader(inputStream, StandardCharsets.UTF_8), tomlParser);
+    }
+
+    /**
+     * Creates a TOML instance loaded with the given UTF-8 bytes, such as a message payload, without decoding them to
+     * a String first.
+     *
+     * @param bytes the UTF-8 bytes to load
+     * @return a TOML object instance
+     * @throws IllegalArgumentException if the bytes are not valid UTF-8
+     */
+    public static Toml parse(byte[] bytes) {
+        return parse(bytes, null);
+    }
+
+    /**
+     * Creates a TOML instance loaded with the given UTF-8 bytes and using the given TOML parser.
+     *
+     * @param bytes      the UTF-8 bytes to load
+     * @param tomlParser the TOML parser to use
+     * @return a TOML object instance
+     * @throws IllegalArgumentException if the bytes are not valid UTF-8
+     */
+    public static Toml parse(byte[] bytes, TomlParser tomlParser) {
+        return parse(ByteBuffer.wrap(bytes), tomlParser);
+    }
+
+    /**
+     * Creates a TOML instance loaded with the remaining UTF-8 bytes of the given buffer, whose position is left
+     * untouched.
+     *
+     * @param buffer the UTF-8 bytes to load
+     * @return a TOML object instance
+     * @throws IllegalArgumentException if the bytes are not valid UTF-8
+     */
+    public static Toml parse(ByteBuffer buffer) {
+        return parse(buffer, null);
+    }
+
+    /**
+     * Creates a TOML instance loaded with the remaining UTF-8 bytes of the given buffer, whose position is left
+     * untouched, and using the given TOML parser.
+     * <p>
+     * The built-in single-pass parser decodes the bytes as parsing goes, copying runs of ASCII characters straight
+     * from the backing array of heap buffers. Other parsers may decode the whole buffer to a String first.
+     *
+     * @param buffer     the UTF-8 bytes to load
+     * @param tomlParser the TOML parser to use
+     * @return a TOML object instance
+     * @throws IllegalArgumentException if the bytes are not valid UTF-8
+     */
+    public static Toml parse(ByteBuffer buffer, TomlParser tomlParser) {
+        return new Toml(tomlParser).parseBuffer(buffer);
+    }
+
+    /**
+     * Creates a TOML instance loaded with the given UTF-8 file.
+     *
+     * @param path the TOML file to load
+     * @return a TOML object instance
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public static Toml parse(Path path) {
+        return parse(path, null);
+    }
+
+    /**
+     * Creates a TOML instance loaded with the given UTF-8 file and using the given TOML parser.
+     * <p>
+     * Large files are memory-mapped and their bytes decoded as parsing goes (see {@link #parseMapped(Path)}), smaller
+     * ones are read through a bounded buffer.
+     *
+     * @param path       the TOML file to load
+     * @param tomlParser the TOML parser to use
+     * @return a TOML object instance
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public static Toml parse(Path path, TomlParser tomlParser) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size >= MAPPING_THRESHOLD && size <= Integer.MAX_VALUE) {
+                return new Toml(tomlParser).parseMapped(channel);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try (InputStream in = Files.newInputStream(path)) {
+            return parse(in, tomlParser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates a TOML instance loaded with the given memory-mapped UTF-8 file, whatever its size.
+     * <p>
+     * The mapped bytes are scanned directly: no line nor whole-document String is created, only keys and values kept
+     * in the resulting structure are decoded. The file must not be larger than 2 GB.
+     *
+     * @param path the TOML file to load
+     * @return a TOML object instance
+     * @throws UncheckedIOException if the file cannot be mapped
+     */
+    public static Toml parseMapped(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new Toml().parseMapped(channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parses many UTF-8 files at once on the given executor, with the default parser.
+     * <p>
+     * Each file is read into a byte buffer reused by the next files, and parsed from there. A file which can not be
+     * read or parsed is reported by {@link TomlBatch#errors()} without aborting the batch.
+     *
+     * <code>
+     * TomlBatch batch = Toml.parseAll(paths, executor);
+     * Toml toml = batch.documents().get(path);
+     * </code>
+     *
+     * @param paths    the files to parse
+     * @param executor the executor parsing the files
+     * @return the result of the batch, once every file is parsed
+     */
+    public static TomlBatch parseAll(Collection<Path> paths, Executor executor) {
+        return TomlBatch.parse(paths, executor, defaultParser);
+    }
+
+    /**
+     * Loads a document from the given snapshot file, written by {@link #writeSnapshot(Path, Path)}.
+     * <p>
+     * The snapshot is memory-mapped and decoded lazily, each table and array being decoded the first time it is
+     * accessed: no TOML text is parsed. The snapshot is stale, and not loaded, when it was written by another version of
+     * the format, or when the TOML file it was written from changed (size or modification time) since.
+     *
+     * @param snapshot the snapshot file
+     * @return a frozen TOML object instance, <code>null</code> if the snapshot does not exist or is stale
+     * @throws IllegalArgumentException if the file is not a valid snapshot
+     * @throws UncheckedIOException     if the snapshot cannot be read
+     */
+    public static Toml loadSnapshot(Path snapshot) {
+        Map<String, Object> context = TomlSnapshot.load(snapshot);
+        return context == null ? null : FrozenToml.readOnly(context, defaultParser);
+    }
+
+    /**
+     * Creates a TOML instance loaded with the given snapshot file when it is fresh, otherwise with the given UTF-8 file,
+     * writing the snapshot for the next time. A snapshot which cannot be read or written is ignored.
+     *
+     * <code>
+     * Toml config = Toml.parseWithSnapshot(Paths.get("config.toml"), Paths.get("config.toml.snapshot"));
+     * </code>
+     *
+     * @param source   the TOML file to load
+     * @param snapshot the snapshot of the file
+     * @return a frozen TOML object instance
+     * @throws UncheckedIOException if the TOML file cannot be read
+     */
+    public static Toml parseWithSnapshot(Path source, Path snapshot) {
+        return TomlSnapshot.parse(source, snapshot, defaultParser);
+    }
+
     /**
      * Serializes the given Object to a TOML String.
      *
@@ -131,24 +435,28 @@ public class Toml implements Parser, Getter {
 
     /**
      * Uses a ServiceLoader to locate available {@link TomlParser} on classpath.
-     * If none is found, the default {@link SimpleTomlParser} is used
+     * An additional parser found on classpath is preferred over the built-in {@link SinglePassTomlParser}, itself
+     * preferred over the built-in {@link SimpleTomlParser}. If none is found, the default {@link SimpleTomlParser} is used
      *
      * @throws IllegalStateException if too much {@link TomlParser} are found on classpath.
      */
     private static void initDefaultParser() {
         List<TomlParser> parsers = new ArrayList<>();
         for (TomlParser value : ServiceLoader.load(TomlParser.class)) parsers.add(value);
-        // check too much (built-in one always available + one additional is OK)
-        if (parsers.size() > 2) {
+        // check too much (built-in ones always available + one additional is OK)
+        int additional = 0;
+        for (TomlParser parser : parsers) {
+            if (!isBuiltinParser(parser)) additional++;
+        }
+        if (additional > 1) {
             throw new IllegalStateException("Too much TomlParser found on classpath: " + parsers);
         }
         // iterate on all available parsers
         for (TomlParser parser : parsers) {
             LOGGER.log(Level.CONFIG, "Found TomlParser instance on classpath: " + parser.getClass().getName());
-            if (SimpleTomlParser.class.equals(parser.getClass()) && defaultParser != null) {
-                continue;
+            if (defaultParser == null || parserPriority(parser) > parserPriority(defaultParser)) {
+                defaultParser = parser;
             }
-            defaultParser = parser;
         }
         // last-chance fallback
         if (defaultParser == null) {
@@ -157,15 +465,127 @@ public class Toml implements Parser, Getter {
         }
     }
 
+    /**
+     * Installs the metrics recording every parse and lookup from now on, by any instance.
+     * Metrics are disabled by default, at the cost of a single check per parse and per lookup.
+     *
+     * @param metrics the metrics, {@link TomlMetrics#NONE} or <code>null</code> to disable them
+     */
+    public static void setMetrics(TomlMetrics metrics) {
+        Toml.metrics = metrics == null ? TomlMetrics.NONE : metrics;
+    }
+
+    /**
+     * Returns the installed metrics.
+     *
+     * @return the metrics, {@link TomlMetrics#NONE} when disabled
+     */
+    public static TomlMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Parses with the given parser, recording the parse when metrics are enabled.
+     *
+     * @param tomlParser the parser
+     * @param parse      the call to the parser
+     * @return the parsed context
+     */
+    static Map<String, Object> parse(TomlParser tomlParser, Function<TomlParser, Map<String, Object>> parse) {
+        TomlMetrics metrics = Toml.metrics;
+        if (metrics == TomlMetrics.NONE) {
+            return parse.apply(tomlParser);
+        }
+        ParseStats stats = ParseStats.start(tomlParser);
+        Map<String, Object> context;
+        try {
+            context = parse.apply(tomlParser);
+        } catch (RuntimeException e) {
+            metrics.parseFailed(stats.stop(), e);
+            throw e;
+        } catch (Error e) {
+            stats.stop();
+            throw e;
+        }
+        metrics.parsed(stats.stop());
+        return context;
+    }
+
+    /**
+     * Returns the default {@link TomlParser}, see {@link #initDefaultParser()}.
+     *
+     * @return the default parser
+     */
+    static TomlParser defaultParser() {
+        return defaultParser;
+    }
+
+    private static boolean isBuiltinParser(TomlParser parser) {
+        return SimpleTomlParser.class.equals(parser.getClass()) || SinglePassTomlParser.class.equals(parser.getClass());
+    }
+
+    private static int parserPriority(TomlParser parser) {
+        if (SimpleTomlParser.class.equals(parser.getClass())) {
+            return 0;
+        }
+        return SinglePassTomlParser.class.equals(parser.getClass()) ? 1 : 2;
+    }
+
     @Override
     public Toml parseString(String string) {
-        context = internalParser().parse(string);
+        context = parse(internalParser(), parser -> parser.parse(string));
+        return this;
+    }
+
+    /**
+     * Parse the content of the given Reader, which is not closed.
+     * The content is consumed incrementally when the parser supports it.
+     *
+     * @param reader the Reader to be parsed.
+     * @return the parsed structure
+     * @throws UncheckedIOException if the reader cannot be read
+     */
+    public Toml parseReader(Reader reader) {
+        context = parse(internalParser(), parser -> parser.parse(reader));
+        return this;
+    }
+
+    /**
+     * Parse the whole content of the given channel, mapped in memory.
+     *
+     * @param channel the file channel
+     * @return the parsed structure
+     * @throws IOException if the file cannot be mapped
+     */
+    private Toml parseMapped(FileChannel channel) throws IOException {
+        return parseBuffer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+
+    /**
+     * Parse the remaining UTF-8 bytes of the given buffer.
+     *
+     * @param buffer the UTF-8 bytes
+     * @return the parsed structure
+     */
+    private Toml parseBuffer(ByteBuffer buffer) {
+        context = parse(internalParser(), parser -> parser.parse(buffer));
         return this;
     }
 
+    /**
+     * Parse the given UTF-8 file.
+     * An unreadable file results in an empty TOML instance.
+     *
+     * @param file the file to be parsed.
+     * @return the parsed structure
+     */
     @Override
     public Toml parseFile(File file) {
-        return parseString(Util.FileToString.read(file));
+        try (InputStream in = new FileInputStream(file)) {
+            return parseReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException | UncheckedIOException e) {
+            return parseString("");
+        }
     }
 
     /**
@@ -192,22 +612,24 @@ public class Toml implements Parser, Getter {
     }
 
     /**
-     * Get the path to a key.
-     * A key can be anything like <code>(\w[.])*\w</code>
-     *
-     * <p><code>keyPath("foo") → "foo"</code></p>
-     * <p><code>keyPath("foo.bar") → "foo"</code></p>
-     * <p><code>keyPath("foo.bar.bazz") → "foo.bar"</code></p>
+     * Get the path of the given key, parsed once and cached until another key takes its slot.
      *
      * @param key the key
-     * @return the path leading to the key.
+     * @return the path of the key.
      */
-    private String keyPath(String key) {
-        if (keyPathMatcher.reset(key).matches()) {
-            return keyPathMatcher.group(1).substring(0, keyPathMatcher.group(1).length() - 1);
-        } else {
-            return key;
+    private static TomlPath path(String key) {
+        if (key == null) {
+            return TomlPath.ROOT;
+        }
+        int hash = key.hashCode();
+        int slot = (hash ^ hash >>> 16) & (PATHS_CACHE_SIZE - 1);
+        CachedPath cached = PATHS[slot];
+        if (cached != null && cached.key.equals(key)) {
+            return cached.path;
         }
+        TomlPath path = TomlPath.of(key);
+        PATHS[slot] = new CachedPath(key, path);
+        return path;
     }
 
     /**
@@ -220,26 +642,43 @@ public class Toml implements Parser, Getter {
      * @return the context
      */
     public Map<String, Object> findContext(Map<String, Object> context, String key) {
-        Map<String, Object> visitor = context;
-        for (String part : key.split("[.]")) {
-            if (!visitor.containsKey(part)) {
+        Object value = find(context, TomlPath.of(key));
+        return value instanceof Map ? (Map<String, Object>) value : null;
+    }
+
+    /**
+     * Walk the given context down to the given path.
+     *
+     * @param context the context
+     * @param path    the path
+     * @return the value located at the given path, <code>null</code> if not found
+     */
+    private static Object find(Map<String, Object> context, TomlPath path) {
+        Object visitor = context;
+        for (int i = 0, size = path.size(); i < size; i++) {
+            if (!(visitor instanceof Map)) {
                 return null;
             }
-            visitor = (Map<String, Object>) visitor.get(part);
+            visitor = ((Map<String, Object>) visitor).get(path.get(i));
         }
         return visitor;
     }
 
     @Override
     public Object get(String key) {
-        if (key == null || "".equals(key.trim())) {
-            return context;
-        } else if (key.contains(".")) {
-            String keyPath = keyPath(key);
-            return findContext(context, keyPath).get(key.replace(keyPath + ".", ""));
-        } else {
-            return context.get(key);
+        return get(path(key));
+    }
+
+    @Override
+    public Object get(TomlPath path) {
+        TomlMetrics metrics = Toml.metrics;
+        if (metrics == TomlMetrics.NONE) {
+            return find(context, path);
         }
+        long start = System.nanoTime();
+        Object value = find(context, path);
+        metrics.lookedUp(System.nanoTime() - start, value != null);
+        return value;
     }
 
     @Override
@@ -259,7 +698,7 @@ public class Toml implements Parser, Getter {
 
     @Override
     public Calendar getDate(String key) {
-        return get(key, Calendar.class);
+        return getDate(path(key));
     }
 
     @Override
@@ -277,9 +716,190 @@ public class Toml implements Parser, Getter {
         return get(key, Boolean.class);
     }
 
+    @Override
+    public String getString(TomlPath path) {
+        return get(path, String.class);
+    }
+
+    @Override
+    public Long getLong(TomlPath path) {
+        return get(path, Long.class);
+    }
+
+    @Override
+    public Double getDouble(TomlPath path) {
+        return get(path, Double.class);
+    }
+
+    /**
+     * Get the date located at the given path as a Calendar, local date-times and local dates being considered in the
+     * default time zone.
+     *
+     * @param path the path where the object is located
+     * @return the date located at the given path, <code>null</code> if not found
+     */
+    @Override
+    public Calendar getDate(TomlPath path) {
+        Object value = get(path);
+        if (value == null || value instanceof Calendar) {
+            return (Calendar) value;
+        } else if (value instanceof Temporal && !(value instanceof LocalTime)) {
+            return Util.ISO8601.toCalendar((Temporal) value);
+        }
+        throw illegalArg(path.toString(), value, Calendar.class);
+    }
+
+    @Override
+    public OffsetDateTime getOffsetDateTime(String key) {
+        return get(key, OffsetDateTime.class);
+    }
+
+    @Override
+    public OffsetDateTime getOffsetDateTime(TomlPath path) {
+        return get(path, OffsetDateTime.class);
+    }
+
+    @Override
+    public LocalDateTime getLocalDateTime(String key) {
+        return get(key, LocalDateTime.class);
+    }
+
+    @Override
+    public LocalDateTime getLocalDateTime(TomlPath path) {
+        return get(path, LocalDateTime.class);
+    }
+
+    @Override
+    public LocalDate getLocalDate(String key) {
+        return get(key, LocalDate.class);
+    }
+
+    @Override
+    public LocalDate getLocalDate(TomlPath path) {
+        return get(path, LocalDate.class);
+    }
+
+    @Override
+    public LocalTime getLocalTime(String key) {
+        return get(key, LocalTime.class);
+    }
+
+    @Override
+    public LocalTime getLocalTime(TomlPath path) {
+        return get(path, LocalTime.class);
+    }
+
+
+    @Override
+    public List<Object> getList(TomlPath path) {
+        return get(path, List.class);
+    }
+
+    @Override
+    public Map<String, Object> getMap(TomlPath path) {
+        return get(path, Map.class);
+    }
+
+    @Override
+    public Boolean getBoolean(TomlPath path) {
+        return get(path, Boolean.class);
+    }
+
+    @Override
+    public long[] getLongArray(String key) {
+        return getLongArray(path(key));
+    }
+
+    @Override
+    public double[] getDoubleArray(String key) {
+        return getDoubleArray(path(key));
+    }
+
+    @Override
+    public boolean[] getBooleanArray(String key) {
+        return getBooleanArray(path(key));
+    }
+
+    /**
+     * Get the longs located at the given path, copied from the primitive array the parser stored them into.
+     *
+     * @param path the path where the object is located
+     * @return the longs located at the given path, <code>null</code> if not found
+     */
+    @Override
+    public long[] getLongArray(TomlPath path) {
+        List<Object> list = get(path, List.class);
+        if (list == null) {
+            return null;
+        } else if (list instanceof LongList) {
+            return ((LongList) list).toLongArray();
+        }
+        // parsed by another parser
+        long[] result = new long[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            if (!(list.get(i) instanceof Long)) {
+                throw illegalArg(path.toString(), list, long[].class);
+            }
+            result[i] = (Long) list.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Get the doubles located at the given path, copied from the primitive array the parser stored them into.
+     *
+     * @param path the path where the object is located
+     * @return the doubles located at the given path, <code>null</code> if not found
+     */
+    @Override
+    public double[] getDoubleArray(TomlPath path) {
+        List<Object> list = get(path, List.class);
+        if (list == null) {
+            return null;
+        } else if (list instanceof DoubleList) {
+            return ((DoubleList) list).toDoubleArray();
+        }
+        // parsed by another parser
+        double[] result = new double[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            if (!(list.get(i) instanceof Double)) {
+                throw illegalArg(path.toString(), list, double[].class);
+            }
+            result[i] = (Double) list.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Get the booleans located at the given path.
+     *
+     * @param path the path where the object is located
+     * @return the booleans located at the given path, <code>null</code> if not found
+     */
+    @Override
+    public boolean[] getBooleanArray(TomlPath path) {
+        List<Object> list = get(path, List.class);
+        if (list == null) {
+            return null;
+        } else if (list instanceof BooleanList) {
+            return ((BooleanList) list).toBooleanArray();
+        }
+        // parsed by another parser
+        boolean[] result = new boolean[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            if (!(list.get(i) instanceof Boolean)) {
+                throw illegalArg(path.toString(), list, boolean[].class);
+            }
+            result[i] = (Boolean) list.get(i);
+        }
+        return result;
+    }
+
     /**
      * Get a new instance of the given Class filled with the value that can be found
      * in the current context at the given key.
+     * <p>The class is introspected once, its instance fields are then set straight from the table located
+     * at the given key.</p>
      *
      * @param key   the key where the value is located
      * @param clazz the class of the resulting object
@@ -288,20 +908,8 @@ public class Toml implements Parser, Getter {
      */
     @Override
     public <T> T getAs(String key, Class<T> clazz) {
-        try {
-            T result = clazz.newInstance();
-            for (Field f : clazz.getDeclaredFields()) {
-                Class<?> fieldType = f.getType();
-                String fieldName = (key == null || "".equals(key.trim())) ? f.getName() : key + "." + f.getName();
-                Object fieldValue = Util.Reflection.isTomlSupportedType(fieldType) ? //
-                        get(fieldName, fieldType) : getAs(fieldName, fieldType);
-                Util.Reflection.setFieldValue(f, result, fieldValue);
-            }
-            return result;
-        } catch (Throwable e) {
-            throw new IllegalArgumentException("Could not map value of key `" + key + //
-                    "` to Object of class `" + clazz.getName() + "`.", e);
-        }
+        Object table = get(key);
+        return (T) ObjectBinder.of(clazz).bind(table instanceof Map ? (Map<String, Object>) table : null, key);
     }
 
     /**
@@ -314,23 +922,73 @@ public class Toml implements Parser, Getter {
      * @return the value whose key is the given parameter, <code>null</code> if not found
      */
     private <T> T get(String key, Class<T> clazz) {
-        Object value = get(key);
+        return get(path(key), clazz);
+    }
+
+    /**
+     * Get the value located at the given path from the context map and cast it to the given class.
+     * <p>Returns null if the value is null.</p>
+     *
+     * @param path  the path to search the value for.
+     * @param clazz the class of the resulting object
+     * @param <T>   the resulting object type
+     * @return the value located at the given path, <code>null</code> if not found
+     */
+    private <T> T get(TomlPath path, Class<T> clazz) {
+        Object value = get(path);
         if (value == null) {
             return null;
         } else if (clazz.isInstance(value)) {
             return (T) value;
         } else {
-            throw illegalArg(key, value, clazz);
+            throw illegalArg(path.toString(), value, clazz);
         }
     }
 
+    /**
+     * Creates a read-only copy of this instance using a compact representation of the parsed document: tables are
+     * stored as arrays indexed by an open-addressing table, keys are interned and homogeneous arrays of longs, doubles
+     * and booleans are backed by primitive arrays.
+     * <p>Meant for documents kept in memory for a long time, the copy cannot be parsed again.</p>
+     *
+     * @return the frozen copy of this instance.
+     */
+    public Toml freeze() {
+        return new FrozenToml(context, tomlParser);
+    }
+
+    /**
+     * Writes the current instance context to the given snapshot file, in a binary format loaded without parsing by
+     * {@link #loadSnapshot(Path)}. The snapshot is never stale.
+     *
+     * @param snapshot the snapshot file, replaced if it exists
+     * @throws IllegalArgumentException if the context holds a value which is not a TOML value
+     * @throws UncheckedIOException     if the snapshot cannot be written
+     */
+    public void writeSnapshot(Path snapshot) {
+        TomlSnapshot.write(context, snapshot, null);
+    }
+
+    /**
+     * Writes the current instance context to the given snapshot file, in a binary format loaded without parsing by
+     * {@link #loadSnapshot(Path)}. The snapshot is stale once the given TOML file changes.
+     *
+     * @param snapshot the snapshot file, replaced if it exists
+     * @param source   the TOML file this instance was loaded from
+     * @throws IllegalArgumentException if the context holds a value which is not a TOML value
+     * @throws UncheckedIOException     if the TOML file or the snapshot cannot be accessed
+     */
+    public void writeSnapshot(Path snapshot, Path source) {
+        TomlSnapshot.write(context, snapshot, source);
+    }
+
     /**
      * Serializes the current instance context to a TOML String.
      *
      * @return the TOML String representing the current instance context.
      */
     public String serialize() {
-        return serialize(null);
+        return serialize((String) null);
     }
 
     /**
@@ -343,6 +1001,33 @@ public class Toml implements Parser, Getter {
         return serialize(rootKey, this.context);
     }
 
+    /**
+     * Serializes the current instance context as TOML to the given Writer, which is flushed but not closed.
+     * The TOML is written as it is produced, through a single buffer, and never held as a whole String.
+     *
+     * @param writer where to write the TOML
+     * @throws UncheckedIOException if the TOML cannot be written
+     */
+    public void serialize(Writer writer) {
+        try {
+            Writer out = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer);
+            tomlSerializer.serialize(null, this.context, out);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Serializes the current instance context as UTF-8 TOML to the given OutputStream, which is flushed but not closed.
+     *
+     * @param outputStream where to write the TOML
+     * @throws UncheckedIOException if the TOML cannot be written
+     */
+    public void serialize(OutputStream outputStream) {
+        serialize(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
     /**
      * Creates an IllegalArgumentException with a pre-filled message.
      *
@@ -351,8 +1036,21 @@ public class Toml implements Parser, Getter {
      * @param value    the value
      * @return the exception ready to be thrown
      */
-    private IllegalArgumentException illegalArg(String key, Object value, Class<?> expected) {
+    static IllegalArgumentException illegalArg(String key, Object value, Class<?> expected) {
         return new IllegalArgumentException(String.format("Value for key `%s` is `%s`%s.", //
-                key, value, (value == null ? "" : ". Expected type was `" + expected.getName() + "`")));
+                key, value, (value == null ? "" : ". Expected type was `" + (expected.isArray() ? expected.getSimpleName() : expected.getName()) + "`")));
+    }
+
+    /**
+     * A String key and its parsed path, in a slot of {@link #PATHS}.
+     */
+    private static final class CachedPath {
+        final String key;
+        final TomlPath path;
+
+        CachedPath(String key, TomlPath path) {
+            this.key = key;
+            this.path = path;
+        }
     }
 }
@@ -0,0 +1,143 @@
+package me.grison.jtoml.impl;
+
+import me.grison.jtoml.TomlParser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * The result of parsing many files at once, see {@link Toml#parseAll(Collection, Executor)}.
+ * <p>
+ * A file which can not be read or parsed does not abort the batch: its error is reported by {@link #errors()}, while
+ * the other files are available from {@link #documents()}.
+ *
+ * @author Alexandre Grison
+ */
+public final class TomlBatch {
+    private final Map<Path, Toml> documents;
+    private final Map<Path, RuntimeException> errors;
+
+    private TomlBatch(Map<Path, Toml> documents, Map<Path, RuntimeException> errors) {
+        this.documents = Collections.unmodifiableMap(documents);
+        this.errors = Collections.unmodifiableMap(errors);
+    }
+
+    /**
+     * Parses the given files on the given executor with the given parser.
+     * <p>
+     * Files are read into byte buffers which are reused from one file to the next, so that a batch allocates about
+     * one buffer per thread of the executor, as large as the largest file read by that thread.
+     *
+     * @param paths      the UTF-8 files to parse
+     * @param executor   the executor parsing the files
+     * @param tomlParser the TOML parser to use
+     * @return the result of the batch, once every file is parsed
+     */
+    static TomlBatch parse(Collection<Path> paths, Executor executor, final TomlParser tomlParser) {
+        final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<Object>> results = new ArrayList<>(paths.size());
+        for (final Path path : paths) {
+            results.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return parse(path, tomlParser, buffers);
+                } catch (RuntimeException e) {
+                    return e;
+                }
+            }, executor));
+        }
+        Map<Path, Toml> documents = new LinkedHashMap<>();
+        Map<Path, RuntimeException> errors = new LinkedHashMap<>();
+        int i = 0;
+        for (Path path : paths) {
+            Object result = results.get(i++).join();
+            if (result instanceof Toml) {
+                documents.put(path, (Toml) result);
+            } else {
+                errors.put(path, (RuntimeException) result);
+            }
+        }
+        return new TomlBatch(documents, errors);
+    }
+
+    private static Toml parse(Path path, TomlParser tomlParser, Queue<ByteBuffer> buffers) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size >= Toml.MAPPING_THRESHOLD) {
+                return Toml.parse(path, tomlParser);
+            }
+            ByteBuffer buffer = buffers.poll();
+            if (buffer == null || buffer.capacity() <= size) {
+                // one more byte to notice the end of file without growing
+                buffer = ByteBuffer.allocate((int) Math.max(size + 1, 4096));
+            }
+            try {
+                // Buffer methods are called through Buffer, to run on Java 8
+                ((Buffer) buffer).clear();
+                while (channel.read(buffer) > 0) {
+                    if (!buffer.hasRemaining()) {
+                        // the file grew since its size was read
+                        buffer = grow(buffer);
+                    }
+                }
+                ((Buffer) buffer).flip();
+                final ByteBuffer content = buffer;
+                Toml toml = new Toml(tomlParser);
+                toml.context = Toml.parse(tomlParser, p -> p.parse(content));
+                return toml;
+            } finally {
+                buffers.offer(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer) {
+        ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2);
+        ((Buffer) buffer).flip();
+        return grown.put(buffer);
+    }
+
+    /**
+     * Returns the successfully parsed files, in the order they were given.
+     *
+     * @return the documents, by path
+     */
+    public Map<Path, Toml> documents() {
+        return documents;
+    }
+
+    /**
+     * Returns the files which could not be read or parsed, in the order they were given.
+     * Errors are {@link UncheckedIOException}s for unreadable files, {@link IllegalArgumentException}s for invalid ones.
+     *
+     * @return the errors, by path
+     */
+    public Map<Path, RuntimeException> errors() {
+        return errors;
+    }
+
+    /**
+     * Returns whether some files could not be read or parsed.
+     *
+     * @return whether there is any error
+     */
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+}
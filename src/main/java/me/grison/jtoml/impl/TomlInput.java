@@ -0,0 +1,371 @@
+package me.grison.jtoml.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A bounded window of characters over a TOML source, refilled incrementally while the parser consumes it.
+ * <p>
+ * Only the window (and whatever the parser decides to keep) is held in memory, never the whole document. The window
+ * also keeps track of the current line and column for error reporting.
+ *
+ * @author Alexandre Grison
+ */
+abstract class TomlInput {
+    static final int EOF = -1;
+    static final int DEFAULT_CAPACITY = 8192;
+
+    final char[] buffer;
+    int pos;
+    int limit;
+    /**
+     * Absolute offset of <code>buffer[0]</code> in the source.
+     */
+    long offset;
+    /**
+     * Current line, and absolute offset of its first character.
+     */
+    int line = 1;
+    long lineStart;
+
+    TomlInput(char[] buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Creates an input reading the given String.
+     *
+     * @param string the TOML String
+     * @return the input
+     */
+    static TomlInput of(String string) {
+        return of(string, 0, string.length());
+    }
+
+    /**
+     * Creates an input reading the given range of a String, as if it was a whole document.
+     *
+     * @param string the TOML String
+     * @param from   the index of the first character to read
+     * @param to     the index after the last character to read
+     * @return the input
+     */
+    static TomlInput of(String string, int from, int to) {
+        return new StringInput(new char[Math.max(16, Math.min(DEFAULT_CAPACITY, to - from))], string, from, to);
+    }
+
+    /**
+     * Creates an input reading the given String through the window of the given context.
+     *
+     * @param string  the TOML String
+     * @param context the context, in use by the caller
+     * @return the input
+     */
+    static TomlInput of(String string, TomlParseContext context) {
+        return new StringInput(context.window(), string, 0, string.length());
+    }
+
+    /**
+     * Creates an input reading the given String from the given index, which is located at the given line and column.
+     * The window is kept small, as such an input is meant to read a single value.
+     *
+     * @param string the TOML String
+     * @param from   the index of the first character to read
+     * @param line   the line of that character
+     * @param column the column of that character
+     * @return the input
+     */
+    static TomlInput of(String string, int from, int line, int column) {
+        TomlInput input = new StringInput(new char[64], string, from, string.length());
+        input.offset = from;
+        input.line = line;
+        input.lineStart = from - (column - 1);
+        return input;
+    }
+
+    /**
+     * Creates an input reading the given Reader.
+     *
+     * @param reader the reader
+     * @return the input
+     */
+    static TomlInput of(Reader reader) {
+        return of(reader, new char[DEFAULT_CAPACITY]);
+    }
+
+    /**
+     * Creates an input reading the given Reader through the window of the given context.
+     *
+     * @param reader  the reader
+     * @param context the context, in use by the caller
+     * @return the input
+     */
+    static TomlInput of(Reader reader, TomlParseContext context) {
+        return of(reader, context.window());
+    }
+
+    private static TomlInput of(final Reader reader, char[] window) {
+        return new TomlInput(window) {
+            @Override
+            protected int read(char[] target, int off, int len) throws IOException {
+                return reader.read(target, off, len);
+            }
+        };
+    }
+
+    /**
+     * Creates an input decoding the remaining UTF-8 bytes of the given buffer, whose position is left untouched.
+     * Bytes are decoded straight into the window, so that a mapped file is never copied nor decoded as a whole.
+     *
+     * @param bytes the UTF-8 bytes
+     * @return the input
+     */
+    static TomlInput of(ByteBuffer bytes) {
+        // a byte decodes to at most one char
+        return new Utf8Input(new char[Math.max(16, Math.min(DEFAULT_CAPACITY, bytes.remaining()))], bytes.duplicate());
+    }
+
+    /**
+     * Creates an input decoding the remaining UTF-8 bytes of the given buffer through the window of the given context.
+     *
+     * @param bytes   the UTF-8 bytes
+     * @param context the context, in use by the caller
+     * @return the input
+     */
+    static TomlInput of(ByteBuffer bytes, TomlParseContext context) {
+        return new Utf8Input(context.window(), bytes.duplicate());
+    }
+
+    /**
+     * Reads characters from the underlying source.
+     *
+     * @return the number of characters read, or {@link #EOF}
+     * @throws IOException if the source cannot be read
+     */
+    protected abstract int read(char[] target, int off, int len) throws IOException;
+
+    /**
+     * Returns the current character without consuming it.
+     *
+     * @return the current character, or {@link #EOF}
+     */
+    int peek() {
+        return pos < limit || ensure(1) ? buffer[pos] : EOF;
+    }
+
+    /**
+     * Returns the character located <code>ahead</code> characters after the current one, without consuming anything.
+     *
+     * @param ahead the distance from the current character
+     * @return the character, or {@link #EOF}
+     */
+    int peek(int ahead) {
+        return pos + ahead < limit || ensure(ahead + 1) ? buffer[pos + ahead] : EOF;
+    }
+
+    /**
+     * Consumes the current character.
+     *
+     * @return the consumed character, or {@link #EOF}
+     */
+    int read() {
+        if (pos >= limit && !ensure(1)) {
+            return EOF;
+        }
+        char c = buffer[pos++];
+        if (c == '\n') {
+            line++;
+            lineStart = offset + pos;
+        }
+        return c;
+    }
+
+    /**
+     * Consumes the given number of already peeked characters, which must not contain any newline.
+     *
+     * @param count the number of characters
+     */
+    void skip(int count) {
+        pos += count;
+    }
+
+    /**
+     * Returns whether the next characters are the given ones.
+     *
+     * @param expected the expected characters
+     * @return whether the input continues with the expected characters
+     */
+    boolean startsWith(String expected) {
+        int length = expected.length();
+        if (limit - pos < length && !ensure(length)) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer[pos + i] != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the column of the current character, starting at 1.
+     *
+     * @return the column
+     */
+    int column() {
+        return (int) (offset + pos - lineStart) + 1;
+    }
+
+    /**
+     * Makes sure at least <code>count</code> characters are available in the window, compacting and refilling it.
+     *
+     * @param count the number of characters needed
+     * @return whether they are available, false if the end of input is reached before
+     */
+    private boolean ensure(int count) {
+        if (pos > 0) {
+            System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+            offset += pos;
+            limit -= pos;
+            pos = 0;
+        }
+        try {
+            while (limit < count) {
+                int read = read(buffer, limit, buffer.length - limit);
+                if (read == EOF) {
+                    return false;
+                }
+                limit += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return true;
+    }
+
+    /**
+     * Copies a range of a String into the window.
+     */
+    private static final class StringInput extends TomlInput {
+        private final String string;
+        private final int to;
+        private int index;
+
+        StringInput(char[] window, String string, int from, int to) {
+            super(window);
+            this.string = string;
+            this.index = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int read(char[] target, int off, int len) {
+            int count = Math.min(len, to - index);
+            if (count <= 0) {
+                return EOF;
+            }
+            string.getChars(index, index + count, target, off);
+            index += count;
+            return count;
+        }
+    }
+
+    /**
+     * Decodes UTF-8 bytes into the window. Runs of ASCII bytes, such as keys, numbers and most values, are copied
+     * from the backing array of heap buffers in a tight loop, only other bytes being decoded one character at a time.
+     */
+    private static final class Utf8Input extends TomlInput {
+        private final ByteBuffer bytes;
+        // the backing array of a heap buffer, whose ASCII runs are copied without going through the buffer
+        private final byte[] array;
+        private final int arrayOffset;
+        // low surrogate of a supplementary character which did not fit in the window
+        private char pendingLowSurrogate;
+
+        Utf8Input(char[] window, ByteBuffer bytes) {
+            super(window);
+            this.bytes = bytes;
+            this.array = bytes.hasArray() ? bytes.array() : null;
+            this.arrayOffset = bytes.hasArray() ? bytes.arrayOffset() : 0;
+        }
+
+        @Override
+        protected int read(char[] target, int off, int len) {
+            int count = 0;
+            if (pendingLowSurrogate != 0) {
+                target[off + count++] = pendingLowSurrogate;
+                pendingLowSurrogate = 0;
+            }
+            ByteBuffer bytes = this.bytes;
+            int index = bytes.position(), end = bytes.limit();
+            while (count < len && index < end) {
+                if (array != null) {
+                    int from = arrayOffset + index, run = Math.min(len - count, end - index), i = 0;
+                    for (byte a; i < run && (a = array[from + i]) >= 0; i++) {
+                        target[off + count + i] = (char) a;
+                    }
+                    count += i;
+                    index += i;
+                    if (i == run) {
+                        break;
+                    }
+                }
+                int b = bytes.get(index++);
+                if (b >= 0) {
+                    target[off + count++] = (char) b;
+                    continue;
+                }
+                int codePoint, continuations, min;
+                if ((b & 0xE0) == 0xC0) {
+                    codePoint = b & 0x1F;
+                    continuations = 1;
+                    min = 0x80;
+                } else if ((b & 0xF0) == 0xE0) {
+                    codePoint = b & 0x0F;
+                    continuations = 2;
+                    min = 0x800;
+                } else if ((b & 0xF8) == 0xF0) {
+                    codePoint = b & 0x07;
+                    continuations = 3;
+                    min = 0x10000;
+                } else {
+                    throw malformed(index - 1);
+                }
+                if (end - index < continuations) {
+                    throw malformed(index - 1);
+                }
+                for (int i = 0; i < continuations; i++) {
+                    int c = bytes.get(index++);
+                    if ((c & 0xC0) != 0x80) {
+                        throw malformed(index - 1);
+                    }
+                    codePoint = (codePoint << 6) | (c & 0x3F);
+                }
+                // overlong forms, surrogates and code points beyond U+10FFFF
+                if (codePoint < min || codePoint > Character.MAX_CODE_POINT
+                        || codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE) {
+                    throw malformed(index - 1 - continuations);
+                }
+                if (Character.isBmpCodePoint(codePoint)) {
+                    target[off + count++] = (char) codePoint;
+                } else {
+                    target[off + count++] = Character.highSurrogate(codePoint);
+                    if (count < len) {
+                        target[off + count++] = Character.lowSurrogate(codePoint);
+                    } else {
+                        pendingLowSurrogate = Character.lowSurrogate(codePoint);
+                    }
+                }
+            }
+            bytes.position(index);
+            return count == 0 && len > 0 ? EOF : count;
+        }
+
+        private IllegalArgumentException malformed(int index) {
+            return new IllegalArgumentException("Malformed UTF-8 input at byte " + index + ".");
+        }
+    }
+}
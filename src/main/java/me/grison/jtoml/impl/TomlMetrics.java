@@ -0,0 +1,44 @@
+package me.grison.jtoml.impl;
+
+/**
+ * Listener recording what parsing and reading documents cost, see {@link Toml#setMetrics(TomlMetrics)}.
+ * <p>
+ * Every method does nothing by default. While {@link #NONE} is installed, nothing is measured at all: parsing and
+ * reading only check whether metrics are enabled.
+ *
+ * @author Alexandre Grison
+ * @see JmxTomlMetrics
+ */
+public interface TomlMetrics {
+    /**
+     * The default metrics, recording nothing.
+     */
+    TomlMetrics NONE = new TomlMetrics() {
+    };
+
+    /**
+     * Called after a document was parsed, from the thread which parsed it.
+     *
+     * @param stats what the parse cost
+     */
+    default void parsed(ParseStats stats) {
+    }
+
+    /**
+     * Called after a document could not be parsed, from the thread which parsed it.
+     *
+     * @param stats what the parse cost, up to the error
+     * @param error the error
+     */
+    default void parseFailed(ParseStats stats, RuntimeException error) {
+    }
+
+    /**
+     * Called after a value was looked up, from the thread which looked it up.
+     *
+     * @param nanos the duration of the lookup, in nanoseconds
+     * @param found whether a value was found
+     */
+    default void lookedUp(long nanos, boolean found) {
+    }
+}
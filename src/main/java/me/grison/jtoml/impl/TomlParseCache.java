@@ -0,0 +1,160 @@
+package me.grison.jtoml.impl;
+
+import me.grison.jtoml.TomlParser;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of parsed documents, for TOML Strings parsed again and again.
+ * <p>
+ * Documents are keyed by their TOML String: lookups use the String hash, computed once per String instance, and
+ * compare the whole String on a hash match, so that a document is never returned for a different String. Cached
+ * documents are frozen (see {@link Toml#freeze()}) and shared by every caller.
+ * <p>
+ * The cache is bounded by the memory held by its keys, 2 bytes per character: when adding a document would exceed the
+ * maximum, the least recently used documents are evicted. A String larger than the maximum is parsed but not cached.
+ * Hits, misses and evictions are counted for monitoring.
+ *
+ * <code>
+ * TomlParseCache cache = new TomlParseCache(16 * 1024 * 1024);
+ * Toml toml = cache.parse(blob);
+ * </code>
+ *
+ * @author Alexandre Grison
+ */
+public class TomlParseCache {
+    private final long maxBytes;
+    private final TomlParser tomlParser;
+    private final LinkedHashMap<String, Toml> documents = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a cache using the default parser.
+     *
+     * @param maxBytes the maximum size of the cached TOML Strings, in bytes
+     */
+    public TomlParseCache(long maxBytes) {
+        this(maxBytes, null);
+    }
+
+    /**
+     * Creates a cache using the given parser.
+     *
+     * @param maxBytes   the maximum size of the cached TOML Strings, in bytes
+     * @param tomlParser the parser, <code>null</code> for the default one
+     */
+    public TomlParseCache(long maxBytes, TomlParser tomlParser) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("The maximum size must not be negative: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        this.tomlParser = tomlParser == null ? Toml.defaultParser() : tomlParser;
+    }
+
+    /**
+     * Returns the document parsed from the given String, parsing it only if it is not cached.
+     * Concurrent misses on the same String may parse it more than once, the first parsed document being kept.
+     *
+     * @param tomlString the TOML String
+     * @return the frozen document
+     * @throws IllegalArgumentException if the String is not valid TOML, which is not cached
+     */
+    public Toml parse(String tomlString) {
+        synchronized (this) {
+            Toml toml = documents.get(tomlString);
+            if (toml != null) {
+                hits++;
+                return toml;
+            }
+            misses++;
+        }
+        Toml parsed = Toml.parse(tomlString, tomlParser).freeze();
+        long weight = weight(tomlString);
+        if (weight > maxBytes) {
+            return parsed;
+        }
+        synchronized (this) {
+            Toml existing = documents.get(tomlString);
+            if (existing != null) {
+                return existing;
+            }
+            Iterator<Map.Entry<String, Toml>> eldest = documents.entrySet().iterator();
+            while (bytes + weight > maxBytes) {
+                bytes -= weight(eldest.next().getKey());
+                eldest.remove();
+                evictions++;
+            }
+            documents.put(tomlString, parsed);
+            bytes += weight;
+            return parsed;
+        }
+    }
+
+    private static long weight(String tomlString) {
+        return 2L * tomlString.length();
+    }
+
+    /**
+     * Removes every document, without resetting the counters.
+     */
+    public synchronized void clear() {
+        documents.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Returns the number of cached documents.
+     *
+     * @return the number of documents
+     */
+    public synchronized int size() {
+        return documents.size();
+    }
+
+    /**
+     * Returns the size of the cached TOML Strings.
+     *
+     * @return the size, in bytes
+     */
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the number of lookups which found a cached document.
+     *
+     * @return the number of hits
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups which had to parse the String.
+     *
+     * @return the number of misses
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of documents evicted to make room for others.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TomlParseCache{documents=" + documents.size() + ", bytes=" + bytes + "/" + maxBytes + ", hits=" + hits
+                + ", misses=" + misses + ", evictions=" + evictions + "}";
+    }
+}
@@ -0,0 +1,129 @@
+package me.grison.jtoml.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The buffers a {@link SinglePassTomlParser} recycles from one parse to the next, not thread-safe.
+ * <p>
+ * A context holds the window of characters the source is read through, the text of the current token, the path of
+ * the current table header and the scratch arrays primitive arrays are read into, so that parsing many small
+ * documents (such as message payloads) only allocates the resulting context maps and their values. Buffers grown
+ * beyond {@link #MAX_RETAINED_LENGTH} by a large document are not kept.
+ * <p>
+ * Each thread parsing with a {@link SinglePassTomlParser} uses its own context by default. A context can also be
+ * given explicitly, as long as it is used by a single thread at a time:
+ *
+ * <code>
+ * TomlParseContext context = new TomlParseContext();
+ * Map&lt;String, Object&gt; payload = parser.parse(message, context);
+ * </code>
+ *
+ * @author Alexandre Grison
+ */
+public final class TomlParseContext {
+    /**
+     * Maximum length of the buffers kept once a parse is done.
+     */
+    static final int MAX_RETAINED_LENGTH = 64 * 1024;
+    private static final ThreadLocal<TomlParseContext> CURRENT = ThreadLocal.withInitial(TomlParseContext::new);
+
+    private char[] window;
+    private char[] text;
+    private final List<String> path = new ArrayList<>(8);
+    private long[] longs;
+    private double[] doubles;
+    private boolean inUse;
+
+    /**
+     * Creates an empty context, whose buffers are allocated by the first parse using them.
+     */
+    public TomlParseContext() {
+    }
+
+    /**
+     * Acquires the context of the current thread.
+     *
+     * @return the context, to be released once the parse is done
+     */
+    static TomlParseContext current() {
+        return CURRENT.get().acquire();
+    }
+
+    /**
+     * Acquires this context, or a new one if it is already in use (such as by a parse triggered from a parse).
+     *
+     * @return the context, to be released once the parse is done
+     */
+    TomlParseContext acquire() {
+        if (inUse) {
+            return new TomlParseContext();
+        }
+        inUse = true;
+        return this;
+    }
+
+    /**
+     * Releases this context, whose buffers can be used by the next parse.
+     */
+    void release() {
+        path.clear();
+        inUse = false;
+    }
+
+    char[] window() {
+        if (window == null) {
+            window = new char[TomlInput.DEFAULT_CAPACITY];
+        }
+        return window;
+    }
+
+    char[] text() {
+        if (text == null) {
+            text = new char[64];
+        }
+        return text;
+    }
+
+    void text(char[] grown) {
+        if (grown.length <= MAX_RETAINED_LENGTH) {
+            text = grown;
+        }
+    }
+
+    /**
+     * Returns the table path list, cleared.
+     *
+     * @return the list
+     */
+    List<String> path() {
+        path.clear();
+        return path;
+    }
+
+    long[] longs() {
+        if (longs == null) {
+            longs = new long[8];
+        }
+        return longs;
+    }
+
+    void longs(long[] grown) {
+        if (grown.length <= MAX_RETAINED_LENGTH) {
+            longs = grown;
+        }
+    }
+
+    double[] doubles() {
+        if (doubles == null) {
+            doubles = new double[8];
+        }
+        return doubles;
+    }
+
+    void doubles(double[] grown) {
+        if (grown.length <= MAX_RETAINED_LENGTH) {
+            doubles = grown;
+        }
+    }
+}
@@ -0,0 +1,936 @@
+package me.grison.jtoml.impl;
+
+import me.grison.jtoml.Util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Pull based TOML reader.
+ * <p>
+ * Reports the content of a TOML document as a sequence of {@link Event}s without building any tree, so that a few keys
+ * can be extracted from a large document without allocating anything for the rest of it. Scalar values are exposed
+ * through primitive accessors, and Strings are only created when {@link #stringValue()} is called.
+ *
+ * <code>
+ * TomlReader reader = new TomlReader("[server]\nport = 8080");
+ * for (TomlReader.Event e = reader.next(); e != TomlReader.Event.END_DOCUMENT; e = reader.next()) {
+ *     if (e == TomlReader.Event.KEY &amp;&amp; reader.stringValue().equals("port")) {
+ *         reader.next();
+ *         long port = reader.longValue();
+ *     }
+ * }
+ * </code>
+ *
+ * <p>A reader is not thread-safe.</p>
+ *
+ * @author Alexandre Grison
+ */
+public class TomlReader implements Closeable {
+    private static final int EOF = TomlInput.EOF;
+    /**
+     * Exact powers of ten, used to convert decimal numbers without going through a String.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    /**
+     * The events reported by {@link #next()}.
+     */
+    public enum Event {
+        /**
+         * A <code>[table]</code> header, see {@link #tablePath()}.
+         */
+        TABLE_START,
+        /**
+         * A <code>[[array.of.tables]]</code> header, see {@link #tablePath()}.
+         */
+        ARRAY_TABLE_START,
+        /**
+         * A key, see {@link #stringValue()}. It is always followed by its value.
+         */
+        KEY,
+        /**
+         * A String value, see {@link #stringValue()}.
+         */
+        VALUE_STRING,
+        /**
+         * An integer value, see {@link #longValue()}.
+         */
+        VALUE_LONG,
+        /**
+         * A float value, see {@link #doubleValue()}.
+         */
+        VALUE_DOUBLE,
+        /**
+         * A boolean value, see {@link #booleanValue()}.
+         */
+        VALUE_BOOLEAN,
+        /**
+         * A date value, see {@link #dateValue()}.
+         */
+        VALUE_DATE,
+        /**
+         * The beginning of an array, followed by its values and {@link #ARRAY_END}.
+         */
+        ARRAY_START,
+        /**
+         * The end of an array.
+         */
+        ARRAY_END,
+        /**
+         * The end of the document, returned forever once reached.
+         */
+        END_DOCUMENT
+    }
+
+    private final TomlInput in;
+    private final Closeable source;
+    private Event event;
+    // Current token text, without its delimiters nor escape sequences
+    private char[] text;
+    private int textLength;
+    private String string;
+    // The current token text, seen without copying it
+    private final CharSequence textView = new CharSequence() {
+        @Override
+        public int length() {
+            return textLength;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return text[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(text, start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(text, 0, textLength);
+        }
+    };
+    private long longValue;
+    private double doubleValue;
+    private boolean booleanValue;
+    private List<String> tablePath = Collections.emptyList();
+    // Parsing state
+    private int depth;
+    private boolean valueExpected;
+    private boolean separatorExpected;
+    private boolean endOfLineExpected;
+    private int line;
+    private int column;
+    // absolute offset where the current event starts
+    private long start;
+    /**
+     * When set, numbers are only delimited, neither validated nor converted, see {@link LazyTomlParser}.
+     */
+    boolean scanOnly;
+    /**
+     * When set, keys and String values are taken from this pool.
+     */
+    TomlStringPool pool;
+    /**
+     * When set, the buffers of this reader are taken from, and given back to, this context.
+     */
+    private final TomlParseContext context;
+
+    /**
+     * Creates a reader over the given TOML String.
+     *
+     * @param tomlString the TOML String
+     */
+    public TomlReader(String tomlString) {
+        this(TomlInput.of(tomlString), null);
+    }
+
+    /**
+     * Creates a reader over the given Reader, consumed incrementally through a bounded buffer.
+     *
+     * @param reader the Reader, closed by {@link #close()}
+     */
+    public TomlReader(Reader reader) {
+        this(TomlInput.of(reader), reader);
+    }
+
+    TomlReader(TomlInput in, Closeable source) {
+        this(in, source, null);
+    }
+
+    /**
+     * Creates a reader taking its buffers from the given context: the list returned by {@link #tablePath()} is then
+     * only valid until the next table header.
+     *
+     * @param in      the input, reading through the window of the context
+     * @param source  the source closed by {@link #close()}, may be <code>null</code>
+     * @param context the context, in use by the caller, may be <code>null</code>
+     */
+    TomlReader(TomlInput in, Closeable source, TomlParseContext context) {
+        this.in = in;
+        this.source = source;
+        this.context = context;
+        this.text = context == null ? new char[64] : context.text();
+    }
+
+    /**
+     * Creates a reader of the single value starting at the given position of the given String.
+     *
+     * @param tomlString the TOML String
+     * @param start      the index where the value starts
+     * @param line       the line where the value starts
+     * @param column     the column where the value starts
+     * @return the reader, whose first event is the value
+     */
+    static TomlReader valueAt(String tomlString, int start, int line, int column) {
+        TomlReader reader = new TomlReader(TomlInput.of(tomlString, start, line, column), null);
+        reader.valueExpected = true;
+        return reader;
+    }
+
+    /**
+     * Moves to the next event.
+     *
+     * @return the next event
+     * @throws IllegalArgumentException if the document is not valid TOML
+     */
+    public Event next() {
+        string = null;
+        if (event == Event.END_DOCUMENT) {
+            return event;
+        }
+        if (valueExpected) {
+            valueExpected = false;
+            skipSpaces();
+            return event = readValue();
+        }
+        if (depth > 0) {
+            return event = nextInArray();
+        }
+        if (endOfLineExpected) {
+            endOfLine();
+            endOfLineExpected = false;
+        }
+        skipBlankLines();
+        mark();
+        int c = in.peek();
+        if (c == EOF) {
+            return event = Event.END_DOCUMENT;
+        } else if (c == '[') {
+            endOfLineExpected = true;
+            return event = readTableHeader();
+        }
+        readKey();
+        skipSpaces();
+        expect('=');
+        valueExpected = true;
+        return event = Event.KEY;
+    }
+
+    /**
+     * Skips the value of the current {@link Event#KEY}, or the whole current array when positioned on
+     * {@link Event#ARRAY_START}. Nothing is materialized while skipping.
+     */
+    public void skipValue() {
+        if (event == Event.KEY) {
+            next();
+        }
+        if (event == Event.ARRAY_START) {
+            for (int target = depth - 1; depth > target; ) {
+                next();
+            }
+        }
+    }
+
+    /**
+     * Returns the current event.
+     *
+     * @return the current event, <code>null</code> before the first call to {@link #next()}
+     */
+    public Event getEvent() {
+        return event;
+    }
+
+    /**
+     * Returns the current key or String value.
+     * For other values, returns their text as found in the document.
+     *
+     * @return the String
+     */
+    public String stringValue() {
+        if (string == null) {
+            string = pool == null || event != Event.KEY && event != Event.VALUE_STRING
+                    ? new String(text, 0, textLength) : pool.intern(textView);
+        }
+        return string;
+    }
+
+    /**
+     * Returns the current integer value.
+     *
+     * @return the value
+     */
+    public long longValue() {
+        return longValue;
+    }
+
+    /**
+     * Returns the current float value.
+     *
+     * @return the value
+     */
+    public double doubleValue() {
+        return doubleValue;
+    }
+
+    /**
+     * Returns the current boolean value.
+     *
+     * @return the value
+     */
+    public boolean booleanValue() {
+        return booleanValue;
+    }
+
+    /**
+     * Returns the current date value: an {@link java.time.OffsetDateTime}, a {@link java.time.LocalDateTime}, a
+     * {@link java.time.LocalDate} or a {@link java.time.LocalTime}, scanned straight from the reader buffer.
+     *
+     * @return the value
+     * @throws IllegalArgumentException if the date is invalid
+     */
+    public Temporal dateTimeValue() {
+        try {
+            return Util.ISO8601.parse(textView);
+        } catch (IllegalArgumentException e) {
+            throw error("Invalid date `" + stringValue() + "`", line, column);
+        }
+    }
+
+    /**
+     * Returns the current date value as a Calendar, see {@link Util.ISO8601#toCalendar(TemporalAccessor)}.
+     *
+     * @return the value
+     * @throws IllegalArgumentException if the date is invalid or is a local time
+     */
+    public Calendar dateValue() {
+        Temporal dateTime = dateTimeValue();
+        try {
+            return Util.ISO8601.toCalendar(dateTime);
+        } catch (IllegalArgumentException e) {
+            throw error("Invalid date `" + stringValue() + "`", line, column);
+        }
+    }
+
+    /**
+     * Returns the keys of the current table header, <code>[a.b.c]</code> being <code>["a", "b", "c"]</code>.
+     *
+     * @return the path of the table
+     */
+    public List<String> tablePath() {
+        return tablePath;
+    }
+
+    /**
+     * Returns the array nesting level of the current event, 0 being outside of any array.
+     *
+     * @return the nesting level
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Returns the line where the current event starts, starting at 1.
+     *
+     * @return the line
+     */
+    public int line() {
+        return line;
+    }
+
+    /**
+     * Returns the column where the current event starts, starting at 1.
+     *
+     * @return the column
+     */
+    public int column() {
+        return column;
+    }
+
+    /**
+     * Returns the absolute offset of the next character to read.
+     *
+     * @return the offset
+     */
+    long position() {
+        return in.offset + in.pos;
+    }
+
+    /**
+     * Returns the absolute offset where the current event starts.
+     *
+     * @return the offset
+     */
+    long start() {
+        return start;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (source != null) {
+            source.close();
+        }
+    }
+
+    /**
+     * Creates an IllegalArgumentException mentioning the line and column where the current event starts.
+     *
+     * @param message the error message
+     * @return the exception ready to be thrown
+     */
+    IllegalArgumentException error(String message) {
+        return error(message, line, column);
+    }
+
+    /**
+     * Creates an IllegalArgumentException mentioning the given line and column.
+     *
+     * @param message the error message
+     * @param line    the line
+     * @param column  the column
+     * @return the exception ready to be thrown
+     */
+    static IllegalArgumentException error(String message, int line, int column) {
+        return new IllegalArgumentException(message + " at line " + line + ", column " + column + ".");
+    }
+
+    /**
+     * Creates an IllegalArgumentException mentioning the current position.
+     */
+    private IllegalArgumentException unexpected(String message) {
+        return error(message, in.line, in.column());
+    }
+
+    private void mark() {
+        line = in.line;
+        column = in.column();
+        start = in.offset + in.pos;
+    }
+
+    private Event nextInArray() {
+        skipBlankLines();
+        int c = in.peek();
+        if (separatorExpected) {
+            if (c == ',') {
+                in.skip(1);
+                separatorExpected = false;
+                skipBlankLines();
+                c = in.peek();
+            } else if (c != ']') {
+                throw unexpected("Expected `,` or `]` in array");
+            }
+        }
+        if (c == ']') {
+            mark();
+            in.skip(1);
+            depth--;
+            valueRead();
+            return Event.ARRAY_END;
+        }
+        return readValue();
+    }
+
+    private void valueRead() {
+        if (depth == 0) {
+            endOfLineExpected = true;
+        } else {
+            separatorExpected = true;
+        }
+    }
+
+    /**
+     * Read a <code>[table]</code> or <code>[[array.of.tables]]</code> header.
+     */
+    private Event readTableHeader() {
+        in.skip(1);
+        boolean arrayOfTables = in.peek() == '[';
+        if (arrayOfTables) {
+            in.skip(1);
+        }
+        List<String> path = context == null ? new ArrayList<>(4) : context.path();
+        while (true) {
+            skipSpaces();
+            readKey();
+            path.add(pool == null ? stringValue() : pool.intern(textView));
+            skipSpaces();
+            if (in.peek() == '.') {
+                in.skip(1);
+            } else {
+                break;
+            }
+        }
+        expect(']');
+        if (arrayOfTables) {
+            expect(']');
+        }
+        string = null;
+        tablePath = path;
+        return arrayOfTables ? Event.ARRAY_TABLE_START : Event.TABLE_START;
+    }
+
+    /**
+     * Read a bare or quoted key.
+     */
+    private void readKey() {
+        string = null;
+        int c = in.peek();
+        if (c == '"') {
+            readBasicString();
+            return;
+        } else if (c == '\'') {
+            readLiteralString();
+            return;
+        }
+        textLength = 0;
+        while (isBareKeyChar(c)) {
+            append((char) c);
+            in.skip(1);
+            c = in.peek();
+        }
+        if (textLength == 0) {
+            throw unexpected("Expected a key");
+        }
+    }
+
+    /**
+     * Read any value.
+     */
+    private Event readValue() {
+        mark();
+        int c = in.peek();
+        switch (c) {
+            case EOF:
+                throw unexpected("Expected a value");
+            case '"':
+                if (in.startsWith("\"\"\"")) {
+                    readMultiLineBasicString();
+                } else {
+                    readBasicString();
+                }
+                valueRead();
+                return Event.VALUE_STRING;
+            case '\'':
+                if (in.startsWith("'''")) {
+                    readMultiLineLiteralString();
+                } else {
+                    readLiteralString();
+                }
+                valueRead();
+                return Event.VALUE_STRING;
+            case '[':
+                in.skip(1);
+                depth++;
+                separatorExpected = false;
+                return Event.ARRAY_START;
+            case 't':
+            case 'f':
+                booleanValue = c == 't';
+                expectWord(booleanValue ? "true" : "false");
+                valueRead();
+                return Event.VALUE_BOOLEAN;
+            default:
+                if ((c >= '0' && c <= '9') || c == '+' || c == '-' || c == '.') {
+                    Event number = readNumberOrDate();
+                    valueRead();
+                    return number;
+                }
+                throw unexpected("Unexpected character `" + (char) c + "`");
+        }
+    }
+
+    /**
+     * Read a number (integer or float) or a date.
+     */
+    private Event readNumberOrDate() {
+        textLength = 0;
+        readValueChars();
+        if (textLength >= 8 && text[2] == ':' && isDigit(text[0])) {
+            return Event.VALUE_DATE;
+        } else if (textLength >= 10 && text[4] == '-' && isDigit(text[0])) {
+            if (textLength == 10 && in.peek() == ' ' && isDigit(in.peek(1)) && isDigit(in.peek(2)) && in.peek(3) == ':') {
+                // date and time separated by a space
+                in.skip(1);
+                append(' ');
+                readValueChars();
+            }
+            return Event.VALUE_DATE;
+        }
+        if (scanOnly) {
+            // may as well be a float, which does not matter when skipping it
+            return Event.VALUE_LONG;
+        }
+        int i = 0;
+        boolean negative = text[0] == '-';
+        if (negative || text[0] == '+') {
+            i++;
+        }
+        // digits are accumulated as a negative number, which can hold Long.MIN_VALUE
+        long mantissa = 0;
+        int digits = 0, exponent = 0;
+        boolean overflow = false, decimal = false;
+        for (; i < textLength && text[i] >= '0' && text[i] <= '9'; i++, digits++) {
+            overflow |= mantissa < Long.MIN_VALUE / 10 || (mantissa = mantissa * 10 - (text[i] - '0')) > 0;
+        }
+        if (i < textLength && text[i] == '.') {
+            decimal = true;
+            int start = ++i;
+            for (; i < textLength && text[i] >= '0' && text[i] <= '9'; i++, digits++, exponent--) {
+                overflow |= mantissa < Long.MIN_VALUE / 10 || (mantissa = mantissa * 10 - (text[i] - '0')) > 0;
+            }
+            if (i == start) {
+                throw invalidNumber();
+            }
+        }
+        if (i < textLength && (text[i] == 'e' || text[i] == 'E')) {
+            decimal = true;
+            int sign = 1, value = 0, start = ++i;
+            if (i < textLength && (text[i] == '-' || text[i] == '+')) {
+                sign = text[i++] == '-' ? -1 : 1;
+                start++;
+            }
+            for (; i < textLength && text[i] >= '0' && text[i] <= '9' && value < 10000; i++) {
+                value = value * 10 + (text[i] - '0');
+            }
+            if (i == start) {
+                throw invalidNumber();
+            }
+            exponent += sign * value;
+        }
+        if (i != textLength || digits == 0) {
+            throw invalidNumber();
+        }
+        if (!decimal) {
+            if (overflow || (!negative && mantissa == Long.MIN_VALUE)) {
+                throw invalidNumber();
+            }
+            longValue = negative ? mantissa : -mantissa;
+            return Event.VALUE_LONG;
+        }
+        if (!overflow && mantissa > -(1L << 53) && exponent >= -22 && exponent <= 22) {
+            // exact conversion: both operands are exactly representable
+            // negated as a long, so that a zero mantissa gives +0.0 before the sign is applied
+            double value = (double) -mantissa;
+            value = exponent < 0 ? value / POWERS_OF_TEN[-exponent] : value * POWERS_OF_TEN[exponent];
+            doubleValue = negative ? -value : value;
+        } else {
+            doubleValue = Double.parseDouble(stringValue());
+            if (Double.isInfinite(doubleValue)) {
+                throw invalidNumber();
+            }
+        }
+        return Event.VALUE_DOUBLE;
+    }
+
+    private void readValueChars() {
+        for (int c = in.peek(); isValueChar(c); c = in.peek()) {
+            if (c != '_') {
+                append((char) c);
+            }
+            in.skip(1);
+        }
+    }
+
+    private IllegalArgumentException invalidNumber() {
+        return error("Invalid number `" + stringValue() + "`");
+    }
+
+    /**
+     * Read a single line basic string (<code>"..."</code>), unescaping its content.
+     */
+    private void readBasicString() {
+        in.skip(1);
+        textLength = 0;
+        while (true) {
+            int c = in.peek();
+            if (c == EOF || c == '\n') {
+                throw unexpected("Unterminated string");
+            }
+            in.skip(1);
+            if (c == '"') {
+                return;
+            } else if (c == '\\') {
+                unescape();
+            } else {
+                append((char) c);
+            }
+        }
+    }
+
+    /**
+     * Read a multi-line basic string (<code>"""..."""</code>).
+     * The newline following the opening delimiter is trimmed, and a backslash followed by whitespace trims
+     * every whitespace (including newlines) up to the next non-whitespace character. CRLF newlines are read as LF.
+     */
+    private void readMultiLineBasicString() {
+        in.skip(3);
+        skipFirstNewline();
+        textLength = 0;
+        while (true) {
+            int c = in.peek();
+            if (c == EOF) {
+                throw unexpected("Unterminated multi-line string");
+            }
+            if (c == '"' && in.startsWith("\"\"\"")) {
+                in.skip(3);
+                return;
+            }
+            if (c == '\r' && in.peek(1) == '\n') {
+                // CRLF is read as a single newline
+                in.skip(1);
+                continue;
+            }
+            in.read();
+            if (c == '\\') {
+                if (isWhitespace(in.peek())) {
+                    while (isWhitespace(in.peek())) {
+                        in.read();
+                    }
+                } else {
+                    unescape();
+                }
+            } else {
+                append((char) c);
+            }
+        }
+    }
+
+    /**
+     * Read a single line literal string (<code>'...'</code>), nothing is escaped.
+     */
+    private void readLiteralString() {
+        in.skip(1);
+        textLength = 0;
+        while (true) {
+            int c = in.peek();
+            if (c == EOF || c == '\n') {
+                throw unexpected("Unterminated literal string");
+            }
+            in.skip(1);
+            if (c == '\'') {
+                return;
+            }
+            append((char) c);
+        }
+    }
+
+    /**
+     * Read a multi-line literal string (<code>'''...'''</code>), the newline following the opening delimiter
+     * is trimmed. CRLF newlines are read as LF.
+     */
+    private void readMultiLineLiteralString() {
+        in.skip(3);
+        skipFirstNewline();
+        textLength = 0;
+        while (true) {
+            int c = in.peek();
+            if (c == EOF) {
+                throw unexpected("Unterminated multi-line literal string");
+            }
+            if (c == '\'' && in.startsWith("'''")) {
+                in.skip(3);
+                return;
+            }
+            if (c == '\r' && in.peek(1) == '\n') {
+                // CRLF is read as a single newline
+                in.skip(1);
+                continue;
+            }
+            append((char) in.read());
+        }
+    }
+
+    /**
+     * Unescape the escape sequence located right after a backslash and append it to the current text.
+     */
+    private void unescape() {
+        int c = in.peek();
+        if (c == EOF) {
+            throw new IllegalStateException("Invalid escape sequence at the end of the input.");
+        }
+        switch (c) {
+            case '0':
+                append('\u0000');
+                break;
+            case 'b':
+                append('\b');
+                break;
+            case 't':
+                append('\t');
+                break;
+            case 'n':
+                append('\n');
+                break;
+            case 'f':
+                append('\f');
+                break;
+            case 'r':
+                append('\r');
+                break;
+            case '"':
+                append('"');
+                break;
+            case '\\':
+                append('\\');
+                break;
+            case 'u':
+                in.skip(1);
+                appendCodePoint(readHex(4));
+                return;
+            case 'U':
+                in.skip(1);
+                appendCodePoint(readHex(8));
+                return;
+            default:
+                throw unexpected("Escape sequence \\" + (char) c + " isn't known. " + //
+                        "Known sequences are: \\0, \\b, \\t, \\n, \\f, \\r, \\\\, \\\", \\uXXXX, \\UXXXXXXXX");
+        }
+        in.skip(1);
+    }
+
+    private int readHex(int digits) {
+        int value = 0;
+        for (int i = 0; i < digits; i++) {
+            int c = in.peek();
+            int digit = c == EOF ? -1 : Character.digit((char) c, 16);
+            if (digit < 0) {
+                throw unexpected("Invalid unicode escape sequence");
+            }
+            value = (value << 4) | digit;
+            in.skip(1);
+        }
+        if (!Character.isValidCodePoint(value)) {
+            throw unexpected("Invalid unicode code point");
+        }
+        return value;
+    }
+
+    private void append(char c) {
+        if (textLength == text.length) {
+            char[] grown = new char[text.length * 2];
+            System.arraycopy(text, 0, grown, 0, textLength);
+            text = grown;
+            if (context != null) {
+                context.text(grown);
+            }
+        }
+        text[textLength++] = c;
+    }
+
+    private void appendCodePoint(int codePoint) {
+        if (Character.isBmpCodePoint(codePoint)) {
+            append((char) codePoint);
+        } else {
+            append(Character.highSurrogate(codePoint));
+            append(Character.lowSurrogate(codePoint));
+        }
+    }
+
+    private void expect(char expected) {
+        if (in.peek() != expected) {
+            throw unexpected("Expected `" + expected + "`");
+        }
+        in.skip(1);
+    }
+
+    private void expectWord(String word) {
+        if (!in.startsWith(word)) {
+            throw unexpected("Expected `" + word + "`");
+        }
+        in.skip(word.length());
+    }
+
+    private void skipFirstNewline() {
+        if (in.peek() == '\n') {
+            in.read();
+        } else if (in.startsWith("\r\n")) {
+            in.skip(1);
+            in.read();
+        }
+    }
+
+    private void skipSpaces() {
+        for (int c = in.peek(); c == ' ' || c == '\t'; c = in.peek()) {
+            in.skip(1);
+        }
+    }
+
+    /**
+     * Skip whitespace, newlines and comments.
+     */
+    private void skipBlankLines() {
+        while (true) {
+            int c = in.peek();
+            if (c == '#') {
+                skipComment();
+            } else if (isWhitespace(c)) {
+                in.read();
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void skipComment() {
+        for (int c = in.peek(); c != EOF && c != '\n'; c = in.peek()) {
+            in.skip(1);
+        }
+    }
+
+    /**
+     * Make sure nothing but whitespace or a comment follows on the current line.
+     */
+    private void endOfLine() {
+        skipSpaces();
+        if (in.peek() == '#') {
+            skipComment();
+        }
+        if (in.peek() == '\r') {
+            in.skip(1);
+        }
+        int c = in.peek();
+        if (c != EOF) {
+            if (c != '\n') {
+                throw unexpected("Expected end of line");
+            }
+            in.read();
+        }
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    private static boolean isBareKeyChar(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isValueChar(int c) {
+        return isBareKeyChar(c) || c == '+' || c == '.' || c == ':';
+    }
+}
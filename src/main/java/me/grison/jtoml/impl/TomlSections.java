@@ -0,0 +1,227 @@
+package me.grison.jtoml.impl;
+
+import java.util.*;
+
+/**
+ * A TOML document split at every top-level table header into sections, each section being parsed on its own, see
+ * {@link Toml#reparse(Toml, String)}.
+ * <p>
+ * When a document is parsed again after an edit, the sections whose text did not change are not parsed again, nor even
+ * scanned when they are located before or after the edited text: their tables are reused as they are. Sections are
+ * then merged into the tables of the document without modifying the tables of any section, so that the tables
+ * declared in unchanged sections are shared by both documents. Being shared, the tables of the sections, and those of
+ * the document, are read-only.
+ *
+ * @author Alexandre Grison
+ */
+@SuppressWarnings("unchecked")
+final class TomlSections {
+    private final String text;
+    /**
+     * Start of each section in {@link #text}, a section ending where the next one starts.
+     */
+    private final int[] starts;
+    private final Map<String, Object>[] tables;
+    /**
+     * The tables of the document, once merged.
+     */
+    Map<String, Object> context;
+
+    private TomlSections(String text, int[] starts, Map<String, Object>[] tables) {
+        this.text = text;
+        this.starts = starts;
+        this.tables = tables;
+    }
+
+    /**
+     * Splits and parses the given TOML String, reusing the sections of the previous document which did not change.
+     * <p>
+     * Sections located before the first changed character, or after the last one, are reused without being looked
+     * at. The sections in between are compared by hash (then by text) with the previous sections in between, so that
+     * moved sections are reused as well.
+     *
+     * @param text     the TOML String
+     * @param previous the sections of the previous document, may be <code>null</code>
+     * @return the sections
+     * @throws IllegalArgumentException if a section is not valid TOML
+     */
+    static TomlSections parse(String text, TomlSections previous) {
+        if (previous == null) {
+            int[] starts = ParallelTomlParser.split(text, 0);
+            Map<String, Object>[] tables = (Map<String, Object>[]) new Map<?, ?>[starts.length];
+            for (int i = 0; i < starts.length; i++) {
+                tables[i] = parse(text, starts[i], end(text, starts, i));
+            }
+            return new TomlSections(text, starts, tables);
+        }
+        String old = previous.text;
+        int[] oldStarts = previous.starts;
+        int prefix = 0, max = Math.min(old.length(), text.length());
+        while (prefix < max && old.charAt(prefix) == text.charAt(prefix)) {
+            prefix++;
+        }
+        if (prefix == old.length() && prefix == text.length()) {
+            return previous;
+        }
+        int suffix = 0;
+        max -= prefix;
+        while (suffix < max && old.charAt(old.length() - 1 - suffix) == text.charAt(text.length() - 1 - suffix)) {
+            suffix++;
+        }
+        final int delta = text.length() - old.length(), changeEnd = text.length() - suffix;
+        // sections ending before the change are unchanged, the next one is scanned again
+        int head = 0;
+        while (head + 1 < oldStarts.length && oldStarts[head + 1] < prefix) {
+            head++;
+        }
+        // up to a table header after the change which was already one in the previous document
+        int[] middle = ParallelTomlParser.split(text, oldStarts[head], 0,
+                p -> p >= changeEnd && Arrays.binarySearch(oldStarts, p - delta) >= 0);
+        int last = middle[middle.length - 1];
+        int tail = last >= changeEnd ? Arrays.binarySearch(oldStarts, last - delta) : -1;
+        if (tail < 0) {
+            tail = oldStarts.length;
+        }
+        int middleCount = tail < oldStarts.length ? middle.length - 1 : middle.length;
+
+        int count = head + middleCount + (oldStarts.length - tail);
+        int[] starts = new int[count];
+        Map<String, Object>[] tables = (Map<String, Object>[]) new Map<?, ?>[count];
+        System.arraycopy(oldStarts, 0, starts, 0, head);
+        System.arraycopy(previous.tables, 0, tables, 0, head);
+        System.arraycopy(middle, 0, starts, head, middleCount);
+        for (int i = tail; i < oldStarts.length; i++) {
+            starts[head + middleCount + i - tail] = oldStarts[i] + delta;
+            tables[head + middleCount + i - tail] = previous.tables[i];
+        }
+        Map<Long, Integer> changed = new HashMap<>();
+        for (int i = head; i < tail; i++) {
+            changed.put(hash(old, oldStarts[i], end(old, oldStarts, i)), i);
+        }
+        for (int i = head; i < head + middleCount; i++) {
+            int start = starts[i], end = end(text, starts, i);
+            Integer same = changed.get(hash(text, start, end));
+            tables[i] = same != null && previous.sameText(same, text, start, end)
+                    ? previous.tables[same] : parse(text, start, end);
+        }
+        return new TomlSections(text, starts, tables);
+    }
+
+    private static Map<String, Object> parse(String text, int start, int end) {
+        return (Map<String, Object>) FrozenToml.freeze(
+                new TomlTreeBuilder().build(new TomlReader(TomlInput.of(text, start, end), null)));
+    }
+
+    private static int end(String text, int[] starts, int i) {
+        return i + 1 < starts.length ? starts[i + 1] : text.length();
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the given range.
+     */
+    private static long hash(String text, int start, int end) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ text.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private boolean sameText(int section, String other, int start, int end) {
+        int from = starts[section];
+        return end(text, starts, section) - from == end - start && text.regionMatches(from, other, start, end - start);
+    }
+
+    /**
+     * Merges the tables of every section, in document order, without modifying them.
+     * The tables of the document, read-only, are kept in {@link #context}.
+     *
+     * @return the tables of the document
+     * @throws IllegalArgumentException if two sections declare conflicting keys
+     */
+    Map<String, Object> merge() {
+        if (context != null) {
+            return context;
+        }
+        Set<Object> owned = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        Map<String, Object> root = new LinkedHashMap<>();
+        owned.add(root);
+        for (Map<String, Object> table : tables) {
+            merge(root, table, owned);
+        }
+        return context = (Map<String, Object>) readOnly(root, owned);
+    }
+
+    /**
+     * Returns a read-only copy of the given value when it is owned by the document, the value itself otherwise.
+     */
+    private static Object readOnly(Object value, Set<Object> owned) {
+        if (!owned.contains(value)) {
+            return value;
+        } else if (value instanceof Map) {
+            Map<String, Object> table = (Map<String, Object>) value;
+            String[] keys = new String[table.size()];
+            Object[] values = new Object[keys.length];
+            int i = 0;
+            for (Map.Entry<String, Object> entry : table.entrySet()) {
+                keys[i] = entry.getKey();
+                values[i++] = readOnly(entry.getValue(), owned);
+            }
+            return new FrozenTable(keys, values);
+        }
+        List<Object> tables = (List<Object>) value;
+        Object[] values = new Object[tables.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readOnly(tables.get(i), owned);
+        }
+        return Collections.unmodifiableList(Arrays.asList(values));
+    }
+
+    /**
+     * Merges the given table into the given table owned by the document, copying the tables and arrays of tables of
+     * the sections before modifying them.
+     */
+    private static void merge(Map<String, Object> target, Map<String, Object> source, Set<Object> owned) {
+        for (Map.Entry<String, Object> entry : source.entrySet()) {
+            String key = entry.getKey();
+            Object existing = target.get(key), value = entry.getValue();
+            if (existing == null) {
+                target.put(key, value);
+            } else if (existing instanceof Map && value instanceof Map) {
+                Map<String, Object> table = own((Map<String, Object>) existing, owned);
+                target.put(key, table);
+                merge(table, (Map<String, Object>) value, owned);
+            } else if (TomlTreeBuilder.isArrayOfTables(existing) && value instanceof Map) {
+                List<Object> tables = own((List<Object>) existing, owned);
+                target.put(key, tables);
+                Map<String, Object> last = own((Map<String, Object>) tables.get(tables.size() - 1), owned);
+                tables.set(tables.size() - 1, last);
+                merge(last, (Map<String, Object>) value, owned);
+            } else if (TomlTreeBuilder.isArrayOfTables(existing) && TomlTreeBuilder.isArrayOfTables(value)) {
+                List<Object> tables = own((List<Object>) existing, owned);
+                target.put(key, tables);
+                tables.addAll((List<Object>) value);
+            } else {
+                throw TomlTreeBuilder.overwrite(Collections.singletonList(key), existing);
+            }
+        }
+    }
+
+    private static Map<String, Object> own(Map<String, Object> table, Set<Object> owned) {
+        if (owned.contains(table)) {
+            return table;
+        }
+        Map<String, Object> copy = new LinkedHashMap<>(table);
+        owned.add(copy);
+        return copy;
+    }
+
+    private static List<Object> own(List<Object> tables, Set<Object> owned) {
+        if (owned.contains(tables)) {
+            return tables;
+        }
+        List<Object> copy = new ArrayList<>(tables);
+        owned.add(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,580 @@
+package me.grison.jtoml.impl;
+
+import me.grison.jtoml.TomlParser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A parsed document stored in a compact binary file, see {@link Toml#writeSnapshot(Path, Path)}.
+ * <p>
+ * A snapshot is made of:
+ * <ul>
+ * <li>a header: magic number, format version, size and modification time of the source TOML file, path of the source
+ * file, number of strings and location of the values</li>
+ * <li>a string table: every key and String value, stored once as UTF-8, located through a table of offsets</li>
+ * <li>the values, each one prefixed with its type; tables and arrays are also prefixed with their length in bytes,
+ * so that they can be skipped</li>
+ * </ul>
+ * Loaded snapshots are memory-mapped and read lazily: a table or an array is decoded the first time it is accessed,
+ * its Strings when it is decoded. Decoded tables and arrays are read-only, as those of a frozen document.
+ *
+ * @author Alexandre Grison
+ */
+@SuppressWarnings("unchecked")
+final class TomlSnapshot {
+    private static final int MAGIC = 0x4A544F4D;
+    /**
+     * Version of the format, snapshots of any other version are ignored.
+     */
+    static final int VERSION = 1;
+    private static final int HEADER_SIZE = 40;
+
+    private static final byte TABLE = 0, ARRAY = 1, STRING = 2, LONG = 3, DOUBLE = 4, TRUE = 5, FALSE = 6,
+            OFFSET_DATE_TIME = 7, LOCAL_DATE_TIME = 8, LOCAL_DATE = 9, LOCAL_TIME = 10, CALENDAR = 11,
+            LONGS = 12, DOUBLES = 13, BOOLEANS = 14;
+
+    private final ByteBuffer buffer;
+    private final String[] strings;
+
+    private TomlSnapshot(ByteBuffer buffer, int stringCount) {
+        this.buffer = buffer;
+        this.strings = new String[stringCount];
+    }
+
+    /**
+     * Writes the given tables to the given snapshot file, replacing it atomically when the file system allows it.
+     *
+     * @param context  the tables of the document
+     * @param snapshot the snapshot file
+     * @param source   the TOML file the document was parsed from, may be <code>null</code>
+     * @throws IllegalArgumentException if a value is not a TOML value
+     * @throws UncheckedIOException     if the source cannot be read or the snapshot cannot be written
+     */
+    static void write(Map<String, Object> context, Path snapshot, Path source) {
+        BasicFileAttributes attributes = null;
+        if (source != null) {
+            try {
+                attributes = Files.readAttributes(source, BasicFileAttributes.class);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        write(context, snapshot, source, attributes);
+    }
+
+    private static void write(Map<String, Object> context, Path snapshot, Path source,
+                              BasicFileAttributes attributes) {
+        Encoder encoder = new Encoder();
+        encoder.value(context);
+        int sourcePath = source == null ? -1 : encoder.string(source.toAbsolutePath().toString());
+
+        int stringCount = encoder.strings.size();
+        Output out = new Output(HEADER_SIZE + 8 * stringCount + encoder.values.size);
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.putLong(attributes == null ? -1 : attributes.size());
+        out.putLong(attributes == null ? -1 : attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+        out.putInt(sourcePath);
+        out.putInt(stringCount);
+        int valuesStart = out.size;
+        out.putInt(0);
+        out.putInt(encoder.values.size);
+        int offsets = out.size;
+        out.ensure(4 * stringCount);
+        out.size += 4 * stringCount;
+        for (int i = 0; i < stringCount; i++) {
+            out.putInt(offsets + 4 * i, out.size);
+            byte[] bytes = encoder.strings.get(i).getBytes(StandardCharsets.UTF_8);
+            out.putInt(bytes.length);
+            out.put(bytes, bytes.length);
+        }
+        out.putInt(valuesStart, out.size);
+        out.put(encoder.values.bytes, encoder.values.size);
+
+        try {
+            Path directory = snapshot.toAbsolutePath().getParent();
+            Path temporary = Files.createTempFile(directory, snapshot.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temporary, Arrays.copyOf(out.bytes, out.size));
+                try {
+                    Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE,
+                            StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Loads the tables stored in the given snapshot file, unless the snapshot is stale: written by another version of
+     * the format, or its source TOML file changed (size or modification time) or disappeared since.
+     *
+     * @param snapshot the snapshot file
+     * @return the lazily decoded tables, <code>null</code> if the snapshot does not exist or is stale
+     * @throws IllegalArgumentException if the file is not a snapshot, or is truncated
+     * @throws UncheckedIOException     if the snapshot cannot be read
+     */
+    static Map<String, Object> load(Path snapshot) {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw corrupted(snapshot);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (buffer.getInt(0) != MAGIC) {
+            throw corrupted(snapshot);
+        } else if (buffer.getInt(4) != VERSION) {
+            return null;
+        }
+        int stringCount = buffer.getInt(28), valuesStart = buffer.getInt(32);
+        if (stringCount < 0 || valuesStart < HEADER_SIZE || (long) valuesStart + buffer.getInt(36) != buffer.capacity()) {
+            throw corrupted(snapshot);
+        }
+        TomlSnapshot decoder = new TomlSnapshot(buffer, stringCount);
+        int sourcePath = buffer.getInt(24);
+        if (sourcePath >= 0 && !decoder.isFresh(Paths.get(decoder.string(sourcePath)))) {
+            return null;
+        }
+        return decoder.new SnapshotTable(valuesStart);
+    }
+
+    /**
+     * Loads the given snapshot file if it is fresh, otherwise parses the given source file and writes the snapshot for
+     * the next time. The snapshot is only a cache: a snapshot which cannot be read or written is ignored.
+     *
+     * @param source     the TOML file
+     * @param snapshot   the snapshot file
+     * @param tomlParser the TOML parser to use when the snapshot is stale
+     * @return the frozen document
+     * @throws UncheckedIOException if the source cannot be read
+     */
+    static Toml parse(Path source, Path snapshot, TomlParser tomlParser) {
+        try {
+            Map<String, Object> context = load(snapshot);
+            if (context != null) {
+                return FrozenToml.readOnly(context, tomlParser);
+            }
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            // parsed and written again below
+        }
+        BasicFileAttributes attributes;
+        try {
+            // read before parsing, so that a change while parsing makes the snapshot stale
+            attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Toml toml = Toml.parse(source, tomlParser);
+        try {
+            write(toml.context, snapshot, source, attributes);
+        } catch (UncheckedIOException e) {
+            // loaded from the source again next time
+        }
+        return toml.freeze();
+    }
+
+    private boolean isFresh(Path source) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+            return attributes.size() == buffer.getLong(8)
+                    && attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS) == buffer.getLong(16);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static IllegalArgumentException corrupted(Path snapshot) {
+        return new IllegalArgumentException("Not a valid TOML snapshot: " + snapshot);
+    }
+
+    /**
+     * Returns the String at the given index of the string table, decoded once.
+     */
+    private String string(int index) {
+        String string = strings[index];
+        if (string == null) {
+            int position = buffer.getInt(HEADER_SIZE + 4 * index);
+            byte[] bytes = new byte[buffer.getInt(position)];
+            ByteBuffer content = buffer.duplicate();
+            ((Buffer) content).position(position + 4);
+            content.get(bytes);
+            strings[index] = string = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return string;
+    }
+
+    /**
+     * Decodes the value at the given position, tables and arrays being decoded on access.
+     */
+    private Object value(int position) {
+        int p = position + 1;
+        switch (buffer.get(position)) {
+            case TABLE:
+                return new SnapshotTable(position);
+            case ARRAY:
+                return new SnapshotList(position);
+            case STRING:
+                return string(buffer.getInt(p));
+            case LONG:
+                return buffer.getLong(p);
+            case DOUBLE:
+                return buffer.getDouble(p);
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case OFFSET_DATE_TIME:
+                return OffsetDateTime.ofInstant(Instant.ofEpochSecond(buffer.getLong(p), buffer.getInt(p + 8)),
+                        ZoneOffset.ofTotalSeconds(buffer.getInt(p + 12)));
+            case LOCAL_DATE_TIME:
+                return LocalDateTime.of(LocalDate.ofEpochDay(buffer.getLong(p)), LocalTime.ofNanoOfDay(buffer.getLong(p + 8)));
+            case LOCAL_DATE:
+                return LocalDate.ofEpochDay(buffer.getLong(p));
+            case LOCAL_TIME:
+                return LocalTime.ofNanoOfDay(buffer.getLong(p));
+            case CALENDAR:
+                Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone(string(buffer.getInt(p + 8))));
+                calendar.setTimeInMillis(buffer.getLong(p));
+                return calendar;
+            case LONGS:
+                long[] longs = new long[buffer.getInt(p)];
+                for (int i = 0; i < longs.length; i++) {
+                    longs[i] = buffer.getLong(p + 4 + 8 * i);
+                }
+                return new LongList(longs);
+            case DOUBLES:
+                double[] doubles = new double[buffer.getInt(p)];
+                for (int i = 0; i < doubles.length; i++) {
+                    doubles[i] = buffer.getDouble(p + 4 + 8 * i);
+                }
+                return new DoubleList(doubles);
+            case BOOLEANS:
+                int size = buffer.getInt(p);
+                BitSet booleans = new BitSet(size);
+                for (int i = 0; i < size; i++) {
+                    booleans.set(i, buffer.get(p + 4 + i) != 0);
+                }
+                return new BooleanList(booleans, size);
+            default:
+                throw new IllegalArgumentException("Corrupted TOML snapshot, unknown type at " + position);
+        }
+    }
+
+    /**
+     * Returns the position following the value at the given position.
+     */
+    private int next(int position) {
+        switch (buffer.get(position)) {
+            case TABLE:
+            case ARRAY:
+                return position + 5 + buffer.getInt(position + 1);
+            case TRUE:
+            case FALSE:
+                return position + 1;
+            case STRING:
+                return position + 5;
+            case LONG:
+            case DOUBLE:
+            case LOCAL_DATE:
+            case LOCAL_TIME:
+                return position + 9;
+            case CALENDAR:
+                return position + 13;
+            case OFFSET_DATE_TIME:
+            case LOCAL_DATE_TIME:
+                return position + 17;
+            case LONGS:
+            case DOUBLES:
+                return position + 5 + 8 * buffer.getInt(position + 1);
+            case BOOLEANS:
+                return position + 5 + buffer.getInt(position + 1);
+            default:
+                throw new IllegalArgumentException("Corrupted TOML snapshot, unknown type at " + position);
+        }
+    }
+
+    /**
+     * A table decoded the first time it is accessed.
+     */
+    private final class SnapshotTable extends AbstractMap<String, Object> {
+        private final int position;
+        private volatile FrozenTable table;
+
+        SnapshotTable(int position) {
+            this.position = position;
+        }
+
+        private FrozenTable table() {
+            FrozenTable decoded = table;
+            if (decoded == null) {
+                int p = position + 5;
+                String[] keys = new String[buffer.getInt(p)];
+                Object[] values = new Object[keys.length];
+                p += 4;
+                for (int i = 0; i < keys.length; i++) {
+                    keys[i] = string(buffer.getInt(p));
+                    values[i] = value(p + 4);
+                    p = next(p + 4);
+                }
+                table = decoded = new FrozenTable(keys, values);
+            }
+            return decoded;
+        }
+
+        @Override
+        public Object get(Object key) {
+            return table().get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return table().containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return table().size();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return table().entrySet();
+        }
+    }
+
+    /**
+     * An array decoded the first time it is accessed.
+     */
+    private final class SnapshotList extends AbstractList<Object> implements RandomAccess {
+        private final int position;
+        private volatile List<Object> list;
+
+        SnapshotList(int position) {
+            this.position = position;
+        }
+
+        private List<Object> list() {
+            List<Object> decoded = list;
+            if (decoded == null) {
+                int p = position + 5;
+                Object[] values = new Object[buffer.getInt(p)];
+                p += 4;
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = value(p);
+                    p = next(p);
+                }
+                list = decoded = Collections.unmodifiableList(Arrays.asList(values));
+            }
+            return decoded;
+        }
+
+        @Override
+        public Object get(int index) {
+            return list().get(index);
+        }
+
+        @Override
+        public int size() {
+            return list().size();
+        }
+    }
+
+    /**
+     * Encodes values, collecting their Strings into the string table.
+     */
+    private static final class Encoder {
+        private final Output values = new Output(1024);
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        int string(String string) {
+            Integer index = indexes.get(string);
+            if (index == null) {
+                index = strings.size();
+                indexes.put(string, index);
+                strings.add(string);
+            }
+            return index;
+        }
+
+        void value(Object value) {
+            if (value instanceof Map) {
+                Map<String, Object> table = (Map<String, Object>) value;
+                int length = start(TABLE);
+                values.putInt(table.size());
+                for (Map.Entry<String, Object> entry : table.entrySet()) {
+                    values.putInt(string(entry.getKey()));
+                    value(entry.getValue());
+                }
+                end(length);
+            } else if (value instanceof List) {
+                list((List<Object>) value);
+            } else if (value instanceof String) {
+                values.put(STRING);
+                values.putInt(string((String) value));
+            } else if (value instanceof Long) {
+                values.put(LONG);
+                values.putLong((Long) value);
+            } else if (value instanceof Double) {
+                values.put(DOUBLE);
+                values.putLong(Double.doubleToRawLongBits((Double) value));
+            } else if (value instanceof Boolean) {
+                values.put((Boolean) value ? TRUE : FALSE);
+            } else if (value instanceof OffsetDateTime) {
+                OffsetDateTime dateTime = (OffsetDateTime) value;
+                values.put(OFFSET_DATE_TIME);
+                values.putLong(dateTime.toEpochSecond());
+                values.putInt(dateTime.getNano());
+                values.putInt(dateTime.getOffset().getTotalSeconds());
+            } else if (value instanceof LocalDateTime) {
+                LocalDateTime dateTime = (LocalDateTime) value;
+                values.put(LOCAL_DATE_TIME);
+                values.putLong(dateTime.toLocalDate().toEpochDay());
+                values.putLong(dateTime.toLocalTime().toNanoOfDay());
+            } else if (value instanceof LocalDate) {
+                values.put(LOCAL_DATE);
+                values.putLong(((LocalDate) value).toEpochDay());
+            } else if (value instanceof LocalTime) {
+                values.put(LOCAL_TIME);
+                values.putLong(((LocalTime) value).toNanoOfDay());
+            } else if (value instanceof Calendar) {
+                Calendar calendar = (Calendar) value;
+                values.put(CALENDAR);
+                values.putLong(calendar.getTimeInMillis());
+                values.putInt(string(calendar.getTimeZone().getID()));
+            } else {
+                throw new IllegalArgumentException("Cannot store `" + value + "` in a TOML snapshot"
+                        + (value == null ? "" : ", unsupported type `" + value.getClass().getName() + "`"));
+            }
+        }
+
+        private void list(List<Object> list) {
+            Class<?> type = list.isEmpty() || list.get(0) == null ? null : list.get(0).getClass();
+            for (Object o : list) {
+                if (o == null || o.getClass() != type) {
+                    type = null;
+                    break;
+                }
+            }
+            if (type == Long.class) {
+                values.put(LONGS);
+                values.putInt(list.size());
+                for (Object o : list) {
+                    values.putLong((Long) o);
+                }
+            } else if (type == Double.class) {
+                values.put(DOUBLES);
+                values.putInt(list.size());
+                for (Object o : list) {
+                    values.putLong(Double.doubleToRawLongBits((Double) o));
+                }
+            } else if (type == Boolean.class) {
+                values.put(BOOLEANS);
+                values.putInt(list.size());
+                for (Object o : list) {
+                    values.put((Boolean) o ? (byte) 1 : (byte) 0);
+                }
+            } else {
+                int length = start(ARRAY);
+                values.putInt(list.size());
+                for (Object o : list) {
+                    value(o);
+                }
+                end(length);
+            }
+        }
+
+        /**
+         * Writes the type of a table or an array, and reserves its length.
+         */
+        private int start(byte type) {
+            values.put(type);
+            int length = values.size;
+            values.putInt(0);
+            return length;
+        }
+
+        private void end(int length) {
+            values.putInt(length, values.size - length - 4);
+        }
+    }
+
+    /**
+     * A growable big-endian byte array.
+     */
+    private static final class Output {
+        private byte[] bytes;
+        private int size;
+
+        Output(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        private void ensure(int length) {
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+            }
+        }
+
+        void put(byte b) {
+            ensure(1);
+            bytes[size++] = b;
+        }
+
+        void put(byte[] b, int length) {
+            ensure(length);
+            System.arraycopy(b, 0, bytes, size, length);
+            size += length;
+        }
+
+        void putInt(int i) {
+            ensure(4);
+            putInt(size, i);
+            size += 4;
+        }
+
+        void putInt(int at, int i) {
+            bytes[at] = (byte) (i >>> 24);
+            bytes[at + 1] = (byte) (i >>> 16);
+            bytes[at + 2] = (byte) (i >>> 8);
+            bytes[at + 3] = (byte) i;
+        }
+
+        void putLong(long l) {
+            putInt((int) (l >>> 32));
+            putInt((int) l);
+        }
+    }
+}
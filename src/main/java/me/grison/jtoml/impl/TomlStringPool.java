@@ -0,0 +1,44 @@
+package me.grison.jtoml.impl;
+
+/**
+ * A pool of Strings used by a parser to share the keys and String values which repeat within or across documents,
+ * see {@link SinglePassTomlParser#SinglePassTomlParser(java.util.function.Supplier)}.
+ *
+ * @author Alexandre Grison
+ * @see BoundedStringPool
+ * @see WeakStringPool
+ */
+public interface TomlStringPool {
+    /**
+     * Estimated size of a String holding no character, its array header included.
+     */
+    int STRING_OVERHEAD = 40;
+
+    /**
+     * Returns a String equal to the given characters, the same instance for equal characters as far as the pool
+     * remembers them. The characters may change once this method returns, and must not be kept.
+     *
+     * @param chars the characters
+     * @return the String
+     */
+    String intern(CharSequence chars);
+
+    /**
+     * Returns the estimated number of bytes saved so far, by returning a pooled String rather than a new one.
+     *
+     * @return the bytes saved, 0 when unknown
+     */
+    default long getBytesSaved() {
+        return 0;
+    }
+
+    /**
+     * Estimates the size of the given String, as stored with 2 bytes per character.
+     *
+     * @param length the length of the String
+     * @return the size in bytes
+     */
+    static long sizeOf(int length) {
+        return STRING_OVERHEAD + 2L * length;
+    }
+}
@@ -0,0 +1,284 @@
+package me.grison.jtoml.impl;
+
+import java.util.*;
+
+/**
+ * Builds the context map of a TOML document from the events of a {@link TomlReader}.
+ *
+ * @author Alexandre Grison
+ */
+@SuppressWarnings("unchecked")
+class TomlTreeBuilder {
+    private final Map<String, Object> root = newTable();
+    private int tables;
+    private int keys;
+    // the scratch arrays of primitive arrays, when set
+    private final TomlParseContext parseContext;
+
+    TomlTreeBuilder() {
+        this(null);
+    }
+
+    /**
+     * Creates a builder reading primitive arrays into the scratch arrays of the given context.
+     *
+     * @param parseContext the context, in use by the caller, may be <code>null</code>
+     */
+    TomlTreeBuilder(TomlParseContext parseContext) {
+        this.parseContext = parseContext;
+    }
+
+    /**
+     * Build the context map of the whole document.
+     *
+     * @param reader the reader, positioned before the first event
+     * @return the context map
+     */
+    Map<String, Object> build(TomlReader reader) {
+        Map<String, Object> table = root;
+        for (TomlReader.Event event = reader.next(); event != TomlReader.Event.END_DOCUMENT; event = reader.next()) {
+            switch (event) {
+                case TABLE_START:
+                    tables++;
+                    table = createContextIfNeeded(reader.tablePath());
+                    break;
+                case ARRAY_TABLE_START:
+                    tables++;
+                    table = appendArrayTable(reader.tablePath());
+                    break;
+                case KEY:
+                    keys++;
+                    String key = reader.stringValue();
+                    table.put(key, readEntryValue(reader));
+                    break;
+                default:
+                    throw reader.error("Unexpected " + event);
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Returns the root table, filled by {@link #build(TomlReader)} or by the callers of
+     * {@link #createContextIfNeeded(List)} and {@link #appendArrayTable(List)}.
+     *
+     * @return the root table
+     */
+    Map<String, Object> root() {
+        return root;
+    }
+
+    /**
+     * Records the size of the document built from the given reader, when metrics are enabled.
+     *
+     * @param reader the reader, at the end of the document
+     */
+    void record(TomlReader reader) {
+        ParseStats stats = ParseStats.current();
+        if (stats != null) {
+            // a last empty line is not counted
+            int lines = reader.column() == 1 ? reader.line() - 1 : reader.line();
+            stats.document(reader.position(), lines, tables, keys);
+        }
+    }
+
+    /**
+     * Creates an empty table.
+     *
+     * @return the table
+     */
+    Map<String, Object> newTable() {
+        return new LinkedHashMap<>();
+    }
+
+    /**
+     * Read the value of the current key.
+     *
+     * @param reader the reader, positioned on a {@link TomlReader.Event#KEY}
+     * @return the value
+     */
+    Object readEntryValue(TomlReader reader) {
+        return readValue(reader, reader.next());
+    }
+
+    /**
+     * Read the value starting with the given event.
+     *
+     * @param reader the reader
+     * @param event  the current event
+     * @return the value
+     */
+    Object readValue(TomlReader reader, TomlReader.Event event) {
+        switch (event) {
+            case VALUE_STRING:
+                return reader.stringValue();
+            case VALUE_LONG:
+                return reader.longValue();
+            case VALUE_DOUBLE:
+                return reader.doubleValue();
+            case VALUE_BOOLEAN:
+                return reader.booleanValue();
+            case VALUE_DATE:
+                return reader.dateTimeValue();
+            case ARRAY_START:
+                return readArray(reader);
+            default:
+                throw reader.error("Unexpected " + event);
+        }
+    }
+
+    /**
+     * Read the array values up to the matching {@link TomlReader.Event#ARRAY_END}, all values having the same type.
+     * Arrays of longs, doubles and booleans are read into primitive-backed lists, without boxing any value.
+     */
+    private List<Object> readArray(TomlReader reader) {
+        TomlReader.Event first = reader.next();
+        switch (first) {
+            case VALUE_LONG:
+                return readLongs(reader);
+            case VALUE_DOUBLE:
+                return readDoubles(reader);
+            case VALUE_BOOLEAN:
+                return readBooleans(reader);
+            default:
+                break;
+        }
+        List<Object> values = new ArrayList<>();
+        Class<?> type = null;
+        for (TomlReader.Event event = first; event != TomlReader.Event.ARRAY_END; event = reader.next()) {
+            Object value = readValue(reader, event);
+            Class<?> valueType = value instanceof List ? List.class : value.getClass();
+            if (type == null) {
+                type = valueType;
+            } else if (type != valueType) {
+                throw inconsistent(type, valueType);
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+    private LongList readLongs(TomlReader reader) {
+        long[] values = parseContext == null ? new long[8] : parseContext.longs();
+        int size = 0;
+        for (TomlReader.Event event = TomlReader.Event.VALUE_LONG; event != TomlReader.Event.ARRAY_END; event = reader.next()) {
+            if (event != TomlReader.Event.VALUE_LONG) {
+                throw inconsistent(Long.class, readValue(reader, event).getClass());
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+                if (parseContext != null) {
+                    parseContext.longs(values);
+                }
+            }
+            values[size++] = reader.longValue();
+        }
+        return new LongList(Arrays.copyOf(values, size));
+    }
+
+    private DoubleList readDoubles(TomlReader reader) {
+        double[] values = parseContext == null ? new double[8] : parseContext.doubles();
+        int size = 0;
+        for (TomlReader.Event event = TomlReader.Event.VALUE_DOUBLE; event != TomlReader.Event.ARRAY_END; event = reader.next()) {
+            if (event != TomlReader.Event.VALUE_DOUBLE) {
+                throw inconsistent(Double.class, readValue(reader, event).getClass());
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+                if (parseContext != null) {
+                    parseContext.doubles(values);
+                }
+            }
+            values[size++] = reader.doubleValue();
+        }
+        return new DoubleList(Arrays.copyOf(values, size));
+    }
+
+    private BooleanList readBooleans(TomlReader reader) {
+        BitSet values = new BitSet();
+        int size = 0;
+        for (TomlReader.Event event = TomlReader.Event.VALUE_BOOLEAN; event != TomlReader.Event.ARRAY_END; event = reader.next()) {
+            if (event != TomlReader.Event.VALUE_BOOLEAN) {
+                throw inconsistent(Boolean.class, readValue(reader, event).getClass());
+            }
+            values.set(size++, reader.booleanValue());
+        }
+        return new BooleanList(values, size);
+    }
+
+    private static IllegalArgumentException inconsistent(Class<?> type, Class<?> other) {
+        return new IllegalArgumentException("Inconsistent types found while parsing array. " + //
+                "Found all the following types in the same array declaration: " + Arrays.asList(type, other));
+    }
+
+    /**
+     * Create the context if needed.
+     * createContextIfNeeded({}, ["foo", "bar", "bazz"])
+     * -> {"foo": {"bar": {"bazz": {}}}}
+     *
+     * @param path the table path
+     * @return the newly created level
+     */
+    Map<String, Object> createContextIfNeeded(List<String> path) {
+        Map<String, Object> visitor = root;
+        for (String part : path) {
+            visitor = child(visitor, part, path);
+        }
+        return visitor;
+    }
+
+    /**
+     * Append a new table to the array of tables located at the given path.
+     *
+     * @param path the array of tables path
+     * @return the newly created table
+     */
+    Map<String, Object> appendArrayTable(List<String> path) {
+        Map<String, Object> visitor = root;
+        for (int i = 0; i < path.size() - 1; i++) {
+            visitor = child(visitor, path.get(i), path);
+        }
+        String last = path.get(path.size() - 1);
+        Object existing = visitor.get(last);
+        List<Object> tables;
+        if (existing == null) {
+            tables = new ArrayList<>();
+            visitor.put(last, tables);
+        } else if (isArrayOfTables(existing)) {
+            tables = (List<Object>) existing;
+        } else {
+            throw overwrite(path, existing);
+        }
+        Map<String, Object> table = newTable();
+        tables.add(table);
+        return table;
+    }
+
+    /**
+     * Get (or create) the sub-table of the given table.
+     * When the sub-table is an array of tables, its last table is returned.
+     */
+    private Map<String, Object> child(Map<String, Object> table, String part, List<String> path) {
+        Object value = table.get(part);
+        if (value == null) {
+            Map<String, Object> created = newTable();
+            table.put(part, created);
+            return created;
+        } else if (value instanceof Map) {
+            return (Map<String, Object>) value;
+        } else if (isArrayOfTables(value)) {
+            List<Object> tables = (List<Object>) value;
+            return (Map<String, Object>) tables.get(tables.size() - 1);
+        }
+        throw overwrite(path, value);
+    }
+
+    static boolean isArrayOfTables(Object value) {
+        return value instanceof List && !((List<Object>) value).isEmpty() && ((List<Object>) value).get(0) instanceof Map;
+    }
+
+    static IllegalArgumentException overwrite(List<String> path, Object value) {
+        return new IllegalArgumentException("Overwriting a previous key is forbidden. Trying to overwrite key `" + //
+                String.join(".", path) + "` having value `" + value + "`");
+    }
+}
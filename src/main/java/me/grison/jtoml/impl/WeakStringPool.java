@@ -0,0 +1,75 @@
+package me.grison.jtoml.impl;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe pool of Strings meant to be shared by every parse of a process.
+ * <p>
+ * Strings are weakly referenced: a String no longer used by any document leaves the pool, which also never holds
+ * more than a maximum number of Strings, further Strings being returned without being pooled. Strings longer than the
+ * maximum length are not pooled. A String is created for each lookup, so that this pool saves the memory retained by
+ * the parsed documents rather than allocations: put it behind a {@link BoundedStringPool} to save both.
+ *
+ * <code>
+ * WeakStringPool shared = new WeakStringPool(100_000, 32);
+ * TomlParser parser = new SinglePassTomlParser(() -> new BoundedStringPool(1024, 32, shared));
+ * </code>
+ *
+ * @author Alexandre Grison
+ */
+public class WeakStringPool implements TomlStringPool {
+    private final Map<String, WeakReference<String>> strings = new WeakHashMap<>();
+    private final int maxSize;
+    private final int maxLength;
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * Creates a pool.
+     *
+     * @param maxSize   the maximum number of pooled Strings
+     * @param maxLength the maximum length of the pooled Strings
+     */
+    public WeakStringPool(int maxSize, int maxLength) {
+        this.maxSize = maxSize;
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public String intern(CharSequence chars) {
+        String string = chars.toString();
+        if (string.length() > maxLength) {
+            return string;
+        }
+        synchronized (strings) {
+            WeakReference<String> reference = strings.get(string);
+            String pooled = reference == null ? null : reference.get();
+            if (pooled != null) {
+                bytesSaved.add(TomlStringPool.sizeOf(string.length()));
+                return pooled;
+            }
+            if (strings.size() < maxSize) {
+                strings.put(string, new WeakReference<>(string));
+            }
+        }
+        return string;
+    }
+
+    @Override
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    /**
+     * Returns the number of pooled Strings.
+     *
+     * @return the number of Strings
+     */
+    public int size() {
+        synchronized (strings) {
+            return strings.size();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package me.grison.jtoml.impl;
+
+import me.grison.jtoml.Util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * How instances of a class are serialized by {@link SimpleTomlSerializer}.
+ * <p>
+ * A class is introspected once: its instance fields are ordered (values first, then nested objects, each group in
+ * declaration order), and their getters are resolved as {@link MethodHandle}s and cached with the class together
+ * with the <code>key = </code> prefix to write. Static and synthetic fields are ignored.
+ *
+ * @author Alexandre Grison
+ */
+final class WritePlan {
+    private static final ClassValue<WritePlan> PLANS = new ClassValue<WritePlan>() {
+        @Override
+        protected WritePlan computeValue(Class<?> type) {
+            return new WritePlan(type);
+        }
+    };
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    final Property[] properties;
+    // the reason why this class cannot be serialized, if any
+    private final RuntimeException failure;
+
+    private WritePlan(Class<?> type) {
+        List<Property> values = new ArrayList<>();
+        List<Property> nested = new ArrayList<>();
+        RuntimeException failure = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                    continue;
+                }
+                field.setAccessible(true);
+                Property property = new Property(field, lookup.unreflectGetter(field).asType(GETTER_TYPE));
+                (property.kind == Kind.NESTED ? nested : values).add(property);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            failure = new IllegalArgumentException("Class `" + type.getName() + "` cannot be serialized to TOML.", e);
+        }
+        values.addAll(nested);
+        this.properties = values.toArray(new Property[0]);
+        this.failure = failure;
+    }
+
+    /**
+     * Gets the plan of the given class.
+     *
+     * @param type the class
+     * @return the plan
+     * @throws IllegalArgumentException if the class cannot be introspected
+     */
+    static WritePlan of(Class<?> type) {
+        WritePlan plan = PLANS.get(type);
+        if (plan.failure != null) {
+            throw plan.failure;
+        }
+        return plan;
+    }
+
+    enum Kind {
+        LIST, VALUE, NESTED
+    }
+
+    /**
+     * A field to be written.
+     */
+    static final class Property {
+        final String name;
+        // the name, quoted if needed
+        final String key;
+        // "key = "
+        final String assignment;
+        final Class<?> type;
+        final Kind kind;
+        private final MethodHandle getter;
+
+        Property(Field field, MethodHandle getter) {
+            this.name = field.getName();
+            this.key = SimpleTomlSerializer.key(name);
+            this.assignment = key + " = ";
+            this.type = field.getType();
+            if (type.equals(List.class)) {
+                this.kind = Kind.LIST;
+            } else if (Util.Reflection.isTomlSupportedTypeExceptMap(type)) {
+                this.kind = Kind.VALUE;
+            } else {
+                this.kind = Kind.NESTED;
+            }
+            this.getter = getter;
+        }
+
+        Object get(Object object) throws Throwable {
+            return getter.invokeExact(object);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package me.grison.jtoml;
+
+import me.grison.jtoml.impl.LazyTomlParser;
+import me.grison.jtoml.impl.SimpleTomlParser;
+import me.grison.jtoml.impl.SinglePassTomlParser;
+import me.grison.jtoml.impl.Toml;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Stress test sharing parsers and parsed instances between many threads.
+ *
+ * @author Alexandre Grison
+ */
+public class ConcurrencyTest {
+    private static final int THREADS = 64;
+    private static final int ITERATIONS = 200;
+
+    private static String document(int n) {
+        return "title = \"doc " + n + "\"\nn = " + n + "\npi = 3.14\nok = true\n" + //
+                "[server]\nhost = \"192.168.1.1\"\nports = [ 8001, 8002, " + n + " ]\n" + //
+                "[server.limits]\nmax = " + (n * 2) + "\n";
+    }
+
+    @Test
+    public void testSharedSimpleTomlParser() throws Exception {
+        assertParsesConcurrently(new SimpleTomlParser());
+    }
+
+    @Test
+    public void testSharedSinglePassTomlParser() throws Exception {
+        assertParsesConcurrently(new SinglePassTomlParser());
+    }
+
+    @Test
+    public void testSharedLazyTomlParser() throws Exception {
+        assertParsesConcurrently(new LazyTomlParser());
+    }
+
+    @Test
+    public void testSharedToml() throws Exception {
+        assertReadsConcurrently(Toml.parse(document(42)));
+    }
+
+    @Test
+    public void testSharedLazyToml() throws Exception {
+        // values are decoded by whichever thread reads them first
+        assertReadsConcurrently(Toml.parse(document(42), new LazyTomlParser()));
+    }
+
+    private void assertReadsConcurrently(final Toml toml) throws Exception {
+        final TomlPath max = TomlPath.of("server.limits.max");
+        run(new Callable<Void>() {
+            @Override
+            public Void call() {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    assertEquals("doc 42", toml.getString("title"));
+                    assertEquals(Long.valueOf(84), toml.getLong(max));
+                    assertEquals(Long.valueOf(84), toml.getLong("server.limits.max"));
+                    assertEquals(3, toml.getList("server.ports").size());
+                    assertEquals("192.168.1.1", toml.getMap("server").get("host"));
+                }
+                return null;
+            }
+        });
+    }
+
+    private void assertParsesConcurrently(final TomlParser parser) throws Exception {
+        run(new Callable<Void>() {
+            @Override
+            public Void call() {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    int n = (int) (Thread.currentThread().getId() * 1000 + i);
+                    Map<String, Object> result = parser.parse(document(n));
+                    assertEquals("doc " + n, result.get("title"));
+                    assertEquals((long) n, result.get("n"));
+                    Map<String, Object> limits = (Map<String, Object>) ((Map<String, Object>) result.get("server")).get("limits");
+                    assertEquals((long) n * 2, limits.get("max"));
+                }
+                return null;
+            }
+        });
+    }
+
+    private void run(final Callable<Void> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        start.await();
+                        return task.call();
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package me.grison.jtoml;
+
+import me.grison.jtoml.impl.Toml;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for frozen {@link Toml} instances.
+ *
+ * @author Alexandre Grison
+ */
+public class FrozenTomlTest {
+    private static final String TOML = "title = \"frozen\"\nn = 42\n[a]\npi = 3.5\nok = true\n" + //
+            "longs = [1, 2, 3]\ndoubles = [1.5, 2.5]\nbools = [true, false, true]\n" + //
+            "nested = [ [1, 2], [\"x\"] ]\nwhen = 1979-05-27T07:32:00Z\n[a.b.c]\nd = \"deep\"\n" + //
+            "[[products]]\nname = \"Hammer\"\n[[products]]\nname = \"Nail\"\n";
+
+    @Test
+    public void testGetters() {
+        Toml toml = Toml.parse(TOML);
+        Toml frozen = toml.freeze();
+        assertEquals("frozen", frozen.getString("title"));
+        assertEquals(Long.valueOf(42), frozen.getLong("n"));
+        assertEquals(3.5d, frozen.getDouble("a.pi"), 0d);
+        assertTrue(frozen.getBoolean("a.ok"));
+        assertEquals(Arrays.asList(1L, 2L, 3L), frozen.getList("a.longs"));
+        assertEquals(Arrays.asList(1.5d, 2.5d), frozen.getList("a.doubles"));
+        assertEquals(Arrays.asList(true, false, true), frozen.getList("a.bools"));
+        assertEquals(Arrays.asList(Arrays.asList(1L, 2L), Arrays.asList("x")), frozen.getList("a.nested"));
+        assertEquals("deep", frozen.getString(TomlPath.of("a.b.c.d")));
+        assertEquals(toml.getMap("a"), frozen.getMap("a"));
+        assertEquals(toml.getDate("a.when"), frozen.getDate("a.when"));
+        assertEquals("Nail", ((Map<String, Object>) frozen.getList("products").get(1)).get("name"));
+        assertNull(frozen.get("a.nope"));
+        assertSame(frozen, frozen.freeze());
+    }
+
+    @Test
+    public void testSameAsParsed() {
+        Toml toml = Toml.parse(new File("src/test/resources/example.toml"));
+        Toml frozen = toml.freeze();
+        assertEquals(toml.getMap(""), frozen.getMap(""));
+        assertEquals(toml.serialize(), frozen.serialize());
+        assertEquals(toml.getMap("").keySet().toString(), frozen.getMap("").keySet().toString());
+    }
+
+    @Test
+    public void testReadOnly() {
+        Toml frozen = Toml.parse(TOML).freeze();
+        try {
+            frozen.getMap("a").put("x", 1L);
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+        try {
+            frozen.getList("a.longs").set(0, 0L);
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+        try {
+            frozen.getList("a.nested").add(null);
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+        try {
+            frozen.parseString("x = 1");
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+        frozen.getDate("a.when").add(Calendar.YEAR, 1);
+        assertEquals(1979, frozen.getDate("a.when").get(Calendar.YEAR));
+    }
+
+    @Test
+    public void testGetAs() {
+        Toml frozen = Toml.parse("[point]\nx = 1\ny = 2\ntags = [\"a\"]").freeze();
+        Point point = frozen.getAs("point", Point.class);
+        assertEquals(Long.valueOf(1), point.x);
+        assertEquals(Long.valueOf(2), point.y);
+        assertEquals(Arrays.asList("a"), point.tags);
+    }
+
+    public static class Point {
+        Long x;
+        Long y;
+        List<Object> tags;
+    }
+}
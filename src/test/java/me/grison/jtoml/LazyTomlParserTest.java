@@ -0,0 +1,65 @@
+package me.grison.jtoml;
+
+import me.grison.jtoml.impl.LazyTomlParser;
+import me.grison.jtoml.impl.SinglePassTomlParser;
+import me.grison.jtoml.impl.Toml;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for the lazy parser, checking it produces the same structure than the single-pass one.
+ *
+ * @author Alexandre Grison
+ */
+public class LazyTomlParserTest {
+    private final TomlParser lazy = new LazyTomlParser();
+    private final TomlParser singlePass = new SinglePassTomlParser();
+
+    @Test
+    public void testSameAsSinglePassParser() throws Exception {
+        String example = Util.FileToString.read(new File("src/test/resources/example.toml"));
+        Map<String, Object> expected = singlePass.parse(example);
+        assertEquals(expected, lazy.parse(example));
+        assertEquals(Toml.parse(example).serialize(), Toml.parse(example, lazy).serialize());
+        assertEquals(Toml.parse(example).getMap(""), Toml.parse(example, lazy).freeze().getMap(""));
+    }
+
+    @Test
+    public void testValues() {
+        Toml toml = Toml.parse("s = \"a\\tb\" # comment\nn = 1_000\n[t]\nx = [ [1, 2], [\"x\"] ]\n" + //
+                "d = 1979-05-27 07:32:00Z\n[[p]]\nq = 2.5\n[[p]]\nq = 3.5\n", lazy);
+        assertEquals("a\tb", toml.getString("s"));
+        assertEquals(Long.valueOf(1000), toml.getLong("n"));
+        assertEquals(Arrays.asList(Arrays.asList(1L, 2L), Arrays.asList("x")), toml.getList("t.x"));
+        assertEquals(1979, toml.getOffsetDateTime("t.d").getYear());
+        assertEquals(3.5d, (Double) ((Map<String, Object>) toml.getList("p").get(1)).get("q"), 0d);
+        assertSame(toml.getString("s"), toml.getString("s"));
+    }
+
+    @Test
+    public void testInvalidValueOnAccess() {
+        Toml toml = Toml.parse("ok = 1\n[a]\nbad = 12abc\n", lazy);
+        assertEquals(Long.valueOf(1), toml.getLong("ok"));
+        try {
+            toml.get("a.bad");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("line 3, column 7"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidStructure() {
+        lazy.parse("a = 1\n[a]\nb = 2");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnterminatedString() {
+        lazy.parse("a = \"oops\nb = 2");
+    }
+}
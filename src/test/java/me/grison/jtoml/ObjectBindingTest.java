@@ -0,0 +1,87 @@
+package me.grison.jtoml;
+
+import me.grison.jtoml.impl.Toml;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for {@link Toml#getAs(String, Class)}.
+ *
+ * @author Alexandre Grison
+ */
+public class ObjectBindingTest {
+    private static final String TOML = "[server]\nhost = \"localhost\"\nport = 8080\nratio = 0.5\nsecure = true\n" + //
+            "tags = [\"a\", \"b\"]\n[server.limits]\nmax = 10\n";
+
+    @Test
+    public void testBind() {
+        Server server = Toml.parse(TOML).getAs("server", Server.class);
+        assertEquals("localhost", server.host);
+        assertEquals(8080L, server.port);
+        assertEquals(0.5d, server.ratio, 0d);
+        assertTrue(server.secure);
+        assertEquals(Arrays.asList("a", "b"), server.tags);
+        assertEquals(Long.valueOf(10), server.limits.max);
+        assertEquals("static", Server.IGNORED);
+    }
+
+    @Test
+    public void testMissingValues() {
+        Server server = Toml.parse("[server]\nhost = \"localhost\"").getAs("server", Server.class);
+        assertEquals(0L, server.port);
+        assertNull(server.tags);
+        assertNotNull(server.limits);
+        assertNull(server.limits.max);
+        assertNotNull(Toml.parse("").getAs("nope", Server.class).limits);
+    }
+
+    @Test
+    public void testRoot() {
+        Limits limits = Toml.parse("max = 3").getAs("", Limits.class);
+        assertEquals(Long.valueOf(3), limits.max);
+    }
+
+    @Test
+    public void testWrongType() {
+        try {
+            Toml.parse("[server]\nhost = 42").getAs("server", Server.class);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Could not map value of key `server` to Object of class `" + Server.class.getName() + "`.", //
+                    e.getMessage());
+            assertEquals("Value for key `server.host` is `42`. Expected type was `java.lang.String`.", //
+                    e.getCause().getMessage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoDefaultConstructor() {
+        Toml.parse("[limits]\nmax = 1").getAs("limits", NoDefaultConstructor.class);
+    }
+
+    public static class Server {
+        static String IGNORED = "static";
+        String host;
+        long port;
+        double ratio;
+        boolean secure;
+        List<Object> tags;
+        Limits limits;
+    }
+
+    private static class Limits {
+        Long max;
+    }
+
+    public static class NoDefaultConstructor {
+        Long max;
+
+        public NoDefaultConstructor(Long max) {
+            this.max = max;
+        }
+    }
+}
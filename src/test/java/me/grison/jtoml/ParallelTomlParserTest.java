@@ -0,0 +1,86 @@
+package me.grison.jtoml;
+
+import me.grison.jtoml.impl.ParallelTomlParser;
+import me.grison.jtoml.impl.SinglePassTomlParser;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for the parallel parser, checking it produces the same structure than the single-pass one.
+ *
+ * @author Alexandre Grison
+ */
+public class ParallelTomlParserTest {
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+    private final TomlParser parallel = new ParallelTomlParser(POOL);
+    private final TomlParser singlePass = new SinglePassTomlParser();
+
+    @AfterClass
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    /**
+     * A document long enough to be split, whose tables, arrays of tables and sub-tables are spread over chunks, and
+     * whose strings and arrays contain lines looking like table headers.
+     */
+    private static String document() {
+        StringBuilder b = new StringBuilder("title = \"parallel\"\n");
+        for (int t = 0; t < 2000; t++) {
+            b.append("[section").append(t % 7).append(".s").append(t).append("]\n")
+                    .append("name = \"[not.a.table]\" # [nor] this\n")
+                    .append("text = \"\"\"\n[fake").append(t).append("]\n\\\"\"\" still text\n\"\"\"\n")
+                    .append("literal = '''\n[[fake]]\n'''\n")
+                    .append("matrix = [\n[1, 2],\n[3]\n]\n")
+                    .append("[[products]]\nid = ").append(t).append('\n')
+                    .append("[products.details]\nsku = 'x").append(t).append("'\n")
+                    .append("[[products.tags]]\nname = \"tag\"\n");
+        }
+        return b.toString();
+    }
+
+    @Test
+    public void testSameAsSinglePassParser() throws Exception {
+        String document = document();
+        Map<String, Object> expected = singlePass.parse(document);
+        Map<String, Object> actual = parallel.parse(document);
+        assertEquals(expected, actual);
+        assertEquals(2000, ((List<Object>) actual.get("products")).size());
+        assertEquals(expected.keySet().toString(), actual.keySet().toString());
+        String example = Util.FileToString.read(new File("src/test/resources/example.toml"));
+        assertEquals(singlePass.parse(example), parallel.parse(example));
+    }
+
+    @Test
+    public void testErrorReportedAsSinglePass() {
+        String document = document() + "[section0.s0]\nbroken = [1, \"x\"]\n";
+        assertEquals(message(singlePass, document), message(parallel, document));
+        document = document() + "[[title]]\na = 1\n";
+        assertEquals(message(singlePass, document), message(parallel, document));
+    }
+
+    @Test
+    public void testTableRedefinedInAnotherChunk() {
+        String document = document() + "[section1]\nlate = true\n[products]\nlast = 1\n";
+        Map<String, Object> actual = parallel.parse(document);
+        assertEquals(singlePass.parse(document), actual);
+        assertEquals(Boolean.TRUE, ((Map<String, Object>) actual.get("section1")).get("late"));
+    }
+
+    private static String message(TomlParser parser, String document) {
+        try {
+            parser.parse(document);
+            fail();
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package me.grison.jtoml;
+
+import me.grison.jtoml.impl.Toml;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for {@link Toml#parseAs(java.io.Reader, Class)}.
+ *
+ * @author Alexandre Grison
+ */
+@SuppressWarnings("unchecked")
+public class ParseAsTest {
+    private static final String TOML = "title = \"app\"\nunknown = [[1, 2], [\"x\", 'y']]\n" + //
+            "[server]\nhost = \"localhost\"\nport = 8080\nratio = 0.5\nsecure = true\n" + //
+            "tags = [\"a\", \"b\"]\nstarted = 1979-05-27T07:32:00Z\n[server.limits]\nmax = 10\n" + //
+            "[server.extra]\nk = \"v\"\n[server.extra.sub]\nn = 1\n" + //
+            "[[server.routes]]\npath = \"/\"\n[[server.routes]]\npath = \"/api\"\n" + //
+            "[ignored]\nx = 1\n[ignored.deeper]\ny = \"z\"\n[[ignored.items]]\nz = 2\n";
+
+    @Test
+    public void testSameAsGetAs() {
+        Config config = Toml.parseAs(new StringReader(TOML), Config.class);
+        assertEquals("app", config.title);
+        Server server = config.server;
+        assertEquals("localhost", server.host);
+        assertEquals(8080L, server.port);
+        assertEquals(0.5d, server.ratio, 0d);
+        assertTrue(server.secure);
+        assertEquals(Arrays.asList("a", "b"), server.tags);
+        assertEquals(1979, server.started.get(Calendar.YEAR));
+        assertEquals(Long.valueOf(10), server.limits.max);
+        assertEquals("v", server.extra.get("k"));
+        assertEquals(1L, ((Map<String, Object>) server.extra.get("sub")).get("n"));
+        assertEquals(2, server.routes.size());
+        assertEquals("/api", ((Map<String, Object>) server.routes.get(1)).get("path"));
+
+        Config bound = Toml.parse(TOML).getAs("", Config.class);
+        assertEquals(bound.server.extra, server.extra);
+        assertEquals(bound.server.routes, server.routes);
+        assertEquals(bound.server.started, server.started);
+    }
+
+    @Test
+    public void testMissingValues() {
+        Config config = Toml.parseAs(new StringReader("[server]\nhost = \"localhost\""), Config.class);
+        assertNull(config.title);
+        assertEquals(0L, config.server.port);
+        assertNotNull(config.server.limits);
+        assertNull(config.server.limits.max);
+        assertNull(config.server.extra);
+    }
+
+    @Test
+    public void testWrongType() {
+        try {
+            Toml.parseAs(new StringReader("[server]\nport = 1\nhost = 42"), Config.class);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Value for key `server.host` is `42`, expected type was `java.lang.String` at line 3, column 8.", //
+                    e.getMessage());
+        }
+        try {
+            Toml.parseAs(new StringReader("\n[server.host]\nx = 1"), Config.class);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Value for key `server.host` is a table, expected type was `java.lang.String` at line 2, " + //
+                    "column 1.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testInvalidDocument() {
+        try {
+            Toml.parseAs(new StringReader("[server]\nport = = 1"), Config.class);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoDefaultConstructor() {
+        Toml.parseAs(new StringReader("max = 1"), ObjectBindingTest.NoDefaultConstructor.class);
+    }
+
+    public static class Config {
+        String title;
+        Server server;
+    }
+
+    public static class Server {
+        String host;
+        long port;
+        double ratio;
+        boolean secure;
+        List<Object> tags;
+        Calendar started;
+        Limits limits;
+        Map<String, Object> extra;
+        List<Object> routes;
+    }
+
+    public static class Limits {
+        Long max;
+    }
+}
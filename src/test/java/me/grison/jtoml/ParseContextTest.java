@@ -0,0 +1,90 @@
+package me.grison.jtoml;
+
+import me.grison.jtoml.impl.SinglePassTomlParser;
+import me.grison.jtoml.impl.TomlParseContext;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for {@link TomlParseContext}.
+ *
+ * @author Alexandre Grison
+ */
+@SuppressWarnings("unchecked")
+public class ParseContextTest {
+    private static final String FIRST = "title = \"" + repeat('x', 300) + "\"\n" + //
+            "longs = [1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12]\ndoubles = [0.5, 1.5, 2.5, 3.5, 4.5, 5.5, 6.5, 7.5, 8.5]\n" + //
+            "[a.b.c]\nd = 1\n[[items]]\nname = \"first\"\n";
+    private static final String SECOND = "title = \"t\"\nlongs = [42]\n[a]\nx = [0.25]\n[[items]]\nname = \"second\"\n";
+
+    private static String repeat(char c, int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void testReusedContext() {
+        SinglePassTomlParser parser = new SinglePassTomlParser();
+        TomlParseContext context = new TomlParseContext();
+        Map<String, Object> first = parser.parse(FIRST, context);
+        Map<String, Object> second = parser.parse(SECOND, context);
+        Map<String, Object> again = parser.parse(FIRST, context);
+        // values read through the recycled buffers are not changed by the next parses
+        assertEquals(new SinglePassTomlParser().parse(FIRST), first);
+        assertEquals(new SinglePassTomlParser().parse(SECOND), second);
+        assertEquals(first, again);
+        assertEquals(12, ((List<Object>) first.get("longs")).size());
+        assertEquals(Arrays.asList(42L), second.get("longs"));
+        assertEquals(1L, ((Map<String, Object>) ((Map<String, Object>) ((Map<String, Object>) first.get("a"))
+                .get("b")).get("c")).get("d"));
+    }
+
+    @Test
+    public void testThreadContext() {
+        SinglePassTomlParser parser = new SinglePassTomlParser();
+        Map<String, Object> expected = parser.parse(FIRST);
+        assertEquals(expected, parser.parse(new StringReader(FIRST)));
+        parser.parse(SECOND);
+        assertEquals(expected, parser.parse(ByteBuffer.wrap(FIRST.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    public void testContextInUse() {
+        final SinglePassTomlParser parser = new SinglePassTomlParser();
+        final TomlParseContext context = new TomlParseContext();
+        final List<Map<String, Object>> nested = new ArrayList<>();
+        // a parse started while the context is in use, by a pool called during the first parse
+        SinglePassTomlParser outer = new SinglePassTomlParser(() -> {
+            nested.add(parser.parse(SECOND, context));
+            nested.add(parser.parse(SECOND));
+            return null;
+        });
+        assertEquals(parser.parse(FIRST), outer.parse(FIRST, context));
+        assertEquals(parser.parse(SECOND), nested.get(0));
+        assertEquals(parser.parse(SECOND), nested.get(1));
+    }
+
+    @Test
+    public void testFailedParseReleasesContext() {
+        SinglePassTomlParser parser = new SinglePassTomlParser();
+        TomlParseContext context = new TomlParseContext();
+        try {
+            parser.parse("[a]\nx = = 1", context);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(parser.parse(SECOND), parser.parse(SECOND, context));
+    }
+}
@@ -0,0 +1,88 @@
+package me.grison.jtoml;
+
+import me.grison.jtoml.impl.SimpleTomlParser;
+import me.grison.jtoml.impl.Toml;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for primitive array getters.
+ *
+ * @author Alexandre Grison
+ */
+public class PrimitiveArrayTest {
+    private static final String TOML = "longs = [ 1, -2, 3_000 ]\ndoubles = [ 0.5, 1.5 ]\n" + //
+            "bools = [ true, false, true ]\nempty = []\nstrings = [ \"a\" ]\nnested = [ [1, 2], [3] ]";
+
+    @Test
+    public void testGetArrays() {
+        for (Toml toml : Arrays.asList(Toml.parse(TOML), Toml.parse(TOML).freeze())) {
+            assertArrayEquals(new long[]{1, -2, 3000}, toml.getLongArray("longs"));
+            assertArrayEquals(new double[]{0.5, 1.5}, toml.getDoubleArray(TomlPath.of("doubles")), 0d);
+            assertArrayEquals(new boolean[]{true, false, true}, toml.getBooleanArray("bools"));
+            assertArrayEquals(new long[0], toml.getLongArray("empty"));
+            assertNull(toml.getLongArray("nope"));
+            assertEquals(Arrays.asList(1L, -2L, 3000L), toml.getList("longs"));
+            assertEquals(Arrays.asList(Arrays.asList(1L, 2L), Arrays.asList(3L)), toml.getList("nested"));
+        }
+    }
+
+    @Test
+    public void testSimpleTomlParser() {
+        Toml toml = Toml.parse("longs = [ 1, 2 ]\ndoubles = [ 0.5 ]\nbools = [ false ]", new SimpleTomlParser());
+        assertArrayEquals(new long[]{1, 2}, toml.getLongArray("longs"));
+        assertArrayEquals(new double[]{0.5}, toml.getDoubleArray("doubles"), 0d);
+        assertArrayEquals(new boolean[]{false}, toml.getBooleanArray("bools"));
+    }
+
+    @Test
+    public void testListsAreReadOnly() {
+        for (String key : Arrays.asList("longs", "doubles", "bools")) {
+            try {
+                Toml.parse(TOML).getList(key).add(null);
+                fail(key);
+            } catch (UnsupportedOperationException expected) {
+            }
+        }
+        List<Object> longs = new ArrayList<>(Toml.parse(TOML).getList("longs"));
+        longs.add(4L);
+        assertEquals(Arrays.asList(1L, -2L, 3000L, 4L), longs);
+    }
+
+    @Test
+    public void testArrayIsCopied() {
+        Toml toml = Toml.parse(TOML);
+        toml.getLongArray("longs")[0] = 42;
+        assertEquals(1L, toml.getList("longs").get(0));
+    }
+
+    @Test
+    public void testBoxedListFromAnotherParser() {
+        Toml toml = Toml.parse("ignored", new TomlParser() {
+            @Override
+            public Map<String, Object> parse(String tomlString) {
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("longs", Arrays.<Object>asList(4L, 5L));
+                return result;
+            }
+        });
+        assertArrayEquals(new long[]{4, 5}, toml.getLongArray("longs"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongType() {
+        Toml.parse(TOML).getLongArray("strings");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInconsistentArray() {
+        Toml.parse("a = [ 1, 2, 3.5 ]");
+    }
+}
@@ -0,0 +1,119 @@
+package me.grison.jtoml;
+
+import me.grison.jtoml.impl.ReloadingToml;
+import me.grison.jtoml.impl.Toml;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for {@link ReloadingToml}.
+ *
+ * @author Alexandre Grison
+ */
+public class ReloadingTomlTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path write(Path path, String content) throws Exception {
+        return Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testReload() throws Exception {
+        Path path = write(folder.getRoot().toPath().resolve("config.toml"), //
+                "title = \"v1\"\n[server]\nport = 80\nhost = \"a\"\n[old]\nx = 1\n");
+        ReloadingToml config = new ReloadingToml(path, null, 10);
+        final List<Set<String>> changes = new ArrayList<>();
+        config.addListener((previous, current, changedKeys) -> {
+            assertEquals("v1", previous.getString("title"));
+            changes.add(changedKeys);
+        });
+        Toml first = config.snapshot();
+        assertEquals(Long.valueOf(80), config.getLong("server.port"));
+        assertFalse(config.reload());
+
+        write(path, "title = \"v1\"\n[server]\nport = 8080\nhost = \"a\"\n[new]\ny = [1, 2]\n");
+        assertTrue(config.reload());
+        assertEquals(Long.valueOf(8080), config.getLong(TomlPath.of("server.port")));
+        assertEquals(Long.valueOf(80), first.getLong("server.port"));
+        assertEquals(Arrays.asList(new LinkedHashSet<>(Arrays.asList("server.port", "new.y", "old.x"))), changes);
+        try {
+            config.getMap("server").put("port", 1L);
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void testSameContentIsNotParsedAgain() throws Exception {
+        Path path = write(folder.getRoot().toPath().resolve("config.toml"), "a = 1\n");
+        ReloadingToml config = new ReloadingToml(path, null, 10);
+        Toml snapshot = config.snapshot();
+        Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis() + 60000));
+        assertFalse(config.reload());
+        assertSame(snapshot, config.snapshot());
+    }
+
+    @Test
+    public void testFailingListener() throws Exception {
+        Path path = write(folder.getRoot().toPath().resolve("config.toml"), "a = 1\n");
+        ReloadingToml config = new ReloadingToml(path, null, 10);
+        final List<Set<String>> changes = new ArrayList<>();
+        config.addListener((previous, current, changedKeys) -> {
+            throw new IllegalStateException("listener");
+        });
+        config.addListener((previous, current, changedKeys) -> changes.add(changedKeys));
+        write(path, "a = 22\n");
+        assertTrue(config.reload());
+        assertEquals(Long.valueOf(22), config.getLong("a"));
+        assertEquals(Collections.singletonList(Collections.singleton("a")), changes);
+    }
+
+    @Test
+    public void testInvalidFileKeepsSnapshot() throws Exception {
+        Path path = write(folder.getRoot().toPath().resolve("config.toml"), "a = 1\n");
+        ReloadingToml config = new ReloadingToml(path, null, 10);
+        write(path, "a = ?\n");
+        try {
+            config.reload();
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(Long.valueOf(1), config.getLong("a"));
+    }
+
+    @Test
+    public void testWatch() throws Exception {
+        Path path = write(folder.getRoot().toPath().resolve("config.toml"), "a = 1\n");
+        final CountDownLatch reloaded = new CountDownLatch(1);
+        final AtomicReference<Set<String>> changes = new AtomicReference<>();
+        try (ReloadingToml config = ReloadingToml.watch(path, null, 20)) {
+            config.addListener((previous, current, changedKeys) -> {
+                changes.set(changedKeys);
+                reloaded.countDown();
+            });
+            write(folder.getRoot().toPath().resolve("other.toml"), "b = 2\n");
+            write(path, "a = 2\nb = true\n");
+            assertTrue(reloaded.await(30, TimeUnit.SECONDS));
+            assertEquals(Long.valueOf(2), config.getLong("a"));
+            assertEquals(new LinkedHashSet<>(Arrays.asList("a", "b")), changes.get());
+        }
+    }
+}
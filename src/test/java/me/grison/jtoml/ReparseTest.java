@@ -0,0 +1,147 @@
+package me.grison.jtoml;
+
+import me.grison.jtoml.impl.Toml;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for {@link Toml#reparse(Toml, String)}.
+ *
+ * @author Alexandre Grison
+ */
+public class ReparseTest {
+    private static final String TOML = "title = \"v1\"\n[a]\nx = 1\n[a.b]\ny = \"\"\"\n[not.a.table]\n\"\"\"\n" + //
+            "[c]\nz = [ [1], [2] ]\n[[p]]\nn = 1\n[p.q]\nm = 1\n[[p]]\nn = 2\n";
+
+    @Test
+    public void testSameAsParse() throws Exception {
+        Toml first = Toml.reparse(null, TOML);
+        assertEquals(Toml.parse(TOML).getMap(""), first.getMap(""));
+        String example = Util.FileToString.read(new File("src/test/resources/example.toml"));
+        assertEquals(Toml.parse(example).getMap(""), Toml.reparse(first, example).getMap(""));
+    }
+
+    @Test
+    public void testUnchangedTablesAreShared() {
+        Toml first = Toml.reparse(null, TOML);
+        String edited = TOML.replace("x = 1", "x = 2");
+        Toml second = Toml.reparse(first, edited);
+        assertEquals(Toml.parse(edited).getMap(""), second.getMap(""));
+        assertEquals(Long.valueOf(2), second.getLong("a.x"));
+        assertEquals(Long.valueOf(1), first.getLong("a.x"));
+        assertNotSame(first.getMap("a"), second.getMap("a"));
+        assertSame(first.getMap("a.b"), second.getMap("a.b"));
+        assertSame(first.getMap("c"), second.getMap("c"));
+        // arrays of tables are copied, their tables shared
+        List<Object> firstP = first.getList("p"), secondP = second.getList("p");
+        assertEquals(firstP, secondP);
+        assertSame(firstP.get(1), secondP.get(1));
+        assertSame(((Map<String, Object>) firstP.get(0)).get("q"), ((Map<String, Object>) secondP.get(0)).get("q"));
+        // the previous document is left untouched
+        assertEquals(Toml.parse(TOML).getMap(""), first.getMap(""));
+    }
+
+    @Test
+    public void testReadOnly() {
+        String text = "[a]\nx = 1\n[b]\ny = 2\n";
+        Toml first = Toml.reparse(null, text);
+        try {
+            first.getMap("b").put("z", 3L);
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+        try {
+            first.getMap("").put("c", 3L);
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+        try {
+            Toml.reparse(null, TOML).getList("p").add(null);
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+        String edited = text.replace("x = 1", "x = 5");
+        assertEquals(Toml.parse(edited).getMap(""), Toml.reparse(first, edited).getMap(""));
+        // the whole document is parsed when sections conflict, and is read-only as well
+        Toml conflicting = Toml.reparse(null, "[a]\nx = 1\n[a.b]\ny = 1\n[a]\nz = 1\n");
+        assertSame(conflicting, conflicting.freeze());
+    }
+
+    @Test
+    public void testMovedAndAddedSections() {
+        Toml first = Toml.reparse(null, TOML);
+        String edited = "[c]\nz = [ [1], [2] ]\n[d]\nw = true\n" + TOML.replace("[c]\nz = [ [1], [2] ]\n", "");
+        Toml second = Toml.reparse(first, edited);
+        assertEquals(Toml.parse(edited).getMap(""), second.getMap(""));
+        assertSame(first.getMap("c"), second.getMap("c"));
+        assertTrue(second.getBoolean("d.w"));
+    }
+
+    @Test
+    public void testRandomEdits() {
+        // units of one or several lines, inserted, removed or replaced at random between the lines of a document
+        String[] units = {"[a]", "[a.b]", "[c]", "[[p]]", "[[p.r]]", "x = 1", "y = \"[s]\" # [t]", "z = [\n[1],\n[2]\n]",
+                "t = \"\"\"\n[in.string]\n\"\"\"", "u = '''\n[[in.literal]]\n'''", "# [comment]", "", "w = 'u'"};
+        Random random = new Random(42);
+        List<String> document = new ArrayList<>(Arrays.asList("[a]", "x = 1", "[c]", "x = 2", "[[p]]", "x = 3"));
+        Toml previous = Toml.reparse(null, String.join("\n", document));
+        int valid = 0;
+        for (int edit = 0; edit < 2000; edit++) {
+            int at = random.nextInt(document.size() + 1), operation = random.nextInt(4);
+            if (operation == 0 && at < document.size()) {
+                document.remove(at);
+            } else if (operation == 1 && at < document.size()) {
+                document.set(at, units[random.nextInt(units.length)]);
+            } else {
+                document.add(at, units[random.nextInt(units.length)]);
+            }
+            String text = String.join("\n", document), expected, actual;
+            try {
+                expected = Toml.parse(text).getMap("").toString();
+                valid++;
+            } catch (IllegalArgumentException e) {
+                expected = e.getMessage();
+            }
+            try {
+                Toml current = Toml.reparse(previous, text);
+                actual = current.getMap("").toString();
+                previous = current;
+            } catch (IllegalArgumentException e) {
+                actual = e.getMessage();
+            }
+            assertEquals(text, expected, actual);
+        }
+        assertTrue(valid > 1000);
+    }
+
+    @Test
+    public void testErrorsReportedWithTheirLine() {
+        Toml first = Toml.reparse(null, TOML);
+        try {
+            Toml.reparse(first, TOML + "[e]\nbad = ?\n");
+            fail();
+        } catch (IllegalArgumentException e) {
+            String expected = null;
+            try {
+                Toml.parse(TOML + "[e]\nbad = ?\n");
+            } catch (IllegalArgumentException parse) {
+                expected = parse.getMessage();
+            }
+            assertEquals(expected, e.getMessage());
+        }
+        // redefining a value as a table is detected across sections
+        try {
+            Toml.reparse(first, TOML + "[title]\n");
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
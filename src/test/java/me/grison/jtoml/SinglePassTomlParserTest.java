@@ -0,0 +1,290 @@
+package me.grison.jtoml;
+
+import me.grison.jtoml.impl.LazyTomlParser;
+import me.grison.jtoml.impl.SimpleTomlParser;
+import me.grison.jtoml.impl.SinglePassTomlParser;
+import me.grison.jtoml.impl.Toml;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.*;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit test for the single-pass parser, checking it produces the same structure than the regex based one.
+ *
+ * @author Alexandre Grison
+ */
+public class SinglePassTomlParserTest {
+    private final TomlParser simple = new SimpleTomlParser();
+    private final TomlParser singlePass = new SinglePassTomlParser();
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testDefaultParser() {
+        assertEquals(SinglePassTomlParser.class, new Toml().parseString("").getTomlParser().getClass());
+    }
+
+    @Test
+    public void testSameAsSimpleParser() {
+        assertSameResult(Util.FileToString.read(new File(getClass().getResource("/example.toml").getFile())));
+        assertSameResult("foo = 42\nbar = -3\nbaz = 3.14\nqux = -0.5 # comment\nok = true\nko = false");
+        assertSameResult("foo = \"Hello\\tWorld\\nI'm having \\u0061 good time \\u263a \\\"!\"");
+        assertSameResult("foo = \"\"\"\nHello\nWorld \\       \nfoo\tbar\"\"\"");
+        assertSameResult("regex2 = '''I [dw]on't need \\d{2} apples'''\nlines  = '''\nThe first newline is\n" + //
+                "trimmed in raw strings.\n   All other whitespace\n   is preserved.\n'''");
+        assertSameResult("winpath  = 'C:\\Users\\nodejs\\templates'\nquoted   = 'Tom \"Dubs\" Preston-Werner'");
+        assertSameResult("foo = [\n\"Hello\",\n\n\t \"World\"\n,\"Nice\"]");
+        assertSameResult("[foo]\nstringKey=\"a\"\nlongKey=42\ndoubleKey=13.37\n" + //
+                "booleanKey=true\nlistKey=[1,2,3]\n[foo.bar]\nbazz=\"Hello\"\ndummy=459\n");
+        assertSameResult("[a]\n[a.b]\nc = 1\n[a]\nd = [[1, 2], [\"x\"]]");
+    }
+
+    @Test
+    public void testMultiLineArrayWithComments() {
+        Toml toml = Toml.parse("foo = [\n  1, 2, 3,\n  4, # this is ok\n  5,\n]");
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L), toml.getList("foo"));
+    }
+
+    @Test
+    public void testArrayOfTables() {
+        Toml toml = Toml.parse("[[fruit]]\nname = \"apple\"\n[fruit.physical]\ncolor = \"red\"\n\n" + //
+                "[[fruit]]\nname = \"banana\"");
+        List<Object> fruits = toml.getList("fruit");
+        assertEquals(2, fruits.size());
+        assertEquals("apple", ((Map<String, Object>) fruits.get(0)).get("name"));
+        assertEquals("red", ((Map<String, Object>) ((Map<String, Object>) fruits.get(0)).get("physical")).get("color"));
+        assertEquals("banana", ((Map<String, Object>) fruits.get(1)).get("name"));
+    }
+
+    @Test
+    public void testQuotedKeysAndNumbers() {
+        Toml toml = Toml.parse("\"quoted key\" = 1_000\n'literal' = +1e3\n\r\n[ a . b ]\r\nc = 1\r\n");
+        assertEquals(Long.valueOf(1000), toml.get("quoted key"));
+        assertEquals(Double.valueOf(1000), toml.get("literal"));
+        assertEquals(Long.valueOf(1), toml.getLong("a.b.c"));
+    }
+
+    @Test
+    public void testErrorPosition() {
+        try {
+            Toml.parse("foo = 1\nbar = [1, 2 3]");
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Expected `,` or `]` in array at line 2, column 13.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testStreaming() throws Exception {
+        File example = new File(getClass().getResource("/example.toml").getFile());
+        Map<String, Object> expected = singlePass.parse(Util.FileToString.read(example));
+        assertEquals(expected, Toml.parse(Paths.get(example.toURI())).getMap(""));
+        try (InputStream in = new FileInputStream(example)) {
+            assertEquals(expected, Toml.parse(in).getMap(""));
+        }
+        // refill the window one character at a time
+        try (Reader reader = new OneCharReader(new InputStreamReader(new FileInputStream(example), StandardCharsets.UTF_8))) {
+            assertEquals(expected, singlePass.parse(reader));
+        }
+        // same content through the default TomlParser contract
+        assertEquals(expected, simple.parse(new StringReader(Util.FileToString.read(example))));
+    }
+
+    @Test
+    public void testStreamingErrorPosition() {
+        try {
+            singlePass.parse(new OneCharReader(new StringReader("foo = \"\"\"\nbar\n\"\"\"\nbaz = ?")));
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Unexpected character `?` at line 4, column 7.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testByteBuffer() {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            // 1, 2, 3 and 4 bytes long characters, the window being filled in the middle of some of them
+            b.append("key").append(i).append(" = \"a\u00e9\u263a\uD83D\uDE00 ").append(i).append("\"\n");
+        }
+        String toml = b.toString();
+        ByteBuffer buffer = ByteBuffer.wrap(toml.getBytes(StandardCharsets.UTF_8));
+        assertEquals(singlePass.parse(toml), singlePass.parse(buffer));
+        assertEquals(0, buffer.position());
+        assertEquals(singlePass.parse(toml), simple.parse(buffer));
+    }
+
+    @Test
+    public void testSignedZero() {
+        String toml = "a = 0.0\nb = -0.0\nc = -1.5\nd = +0.0\n";
+        Map<String, Object> expected = simple.parse(toml);
+        Map<String, Object> actual = singlePass.parse(toml);
+        assertEquals(expected, actual);
+        for (String key : Arrays.asList("a", "b", "c", "d")) {
+            // Double#equals tells 0.0 from -0.0
+            assertEquals(key, expected.get(key), actual.get(key));
+        }
+        assertEquals(Double.valueOf(0.0), actual.get("a"));
+        assertEquals(Double.valueOf(-0.0), actual.get("b"));
+    }
+
+    @Test
+    public void testBytes() {
+        String toml = "title = \"caf\u00e9 \uD83D\uDE00\"\nport = 8080\n[a]\nok = true\nname = \"plain\"\n";
+        byte[] bytes = toml.getBytes(StandardCharsets.UTF_8);
+        Map<String, Object> expected = Toml.parse(toml).getMap("");
+        assertEquals(expected, Toml.parse(bytes).getMap(""));
+        assertEquals(expected, Toml.parse(bytes, simple).getMap(""));
+        // a slice of a larger array, and a direct buffer
+        byte[] framed = new byte[bytes.length + 8];
+        System.arraycopy(bytes, 0, framed, 4, bytes.length);
+        ByteBuffer slice = ByteBuffer.wrap(framed, 4, bytes.length).slice();
+        assertEquals(expected, Toml.parse(slice).getMap(""));
+        assertEquals(0, slice.position());
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        ((Buffer) direct.put(bytes)).flip();
+        assertEquals(expected, Toml.parse(direct).getMap(""));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedBytesAfterAscii() {
+        Toml.parse(new byte[]{'a', ' ', '=', ' ', '"', 'x', (byte) 0xE2, (byte) 0x98, '"'});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedBytes() {
+        singlePass.parse(ByteBuffer.wrap(new byte[]{'a', ' ', '=', ' ', '"', (byte) 0xC3, '"'}));
+    }
+
+    @Test
+    public void testInvalidUtf8Sequences() {
+        int[][] sequences = {
+                {0xF7, 0xBF, 0xBF, 0xBF}, // lead byte beyond U+10FFFF
+                {0xF4, 0x90, 0x80, 0x80}, // U+110000
+                {0xC0, 0xAF}, // overlong '/'
+                {0xC0, 0x80}, // overlong NUL
+                {0xE0, 0x80, 0xAF}, // overlong 3 bytes
+                {0xF0, 0x80, 0x80, 0xAF}, // overlong 4 bytes
+                {0xED, 0xA0, 0x80}, // high surrogate
+                {0xED, 0xBF, 0xBF}, // low surrogate
+        };
+        for (int[] sequence : sequences) {
+            byte[] bytes = new byte[sequence.length + 6];
+            bytes[0] = 'a';
+            bytes[1] = '=';
+            bytes[2] = '"';
+            bytes[3] = 'x';
+            for (int i = 0; i < sequence.length; i++) {
+                bytes[4 + i] = (byte) sequence[i];
+            }
+            bytes[4 + sequence.length] = '"';
+            bytes[5 + sequence.length] = '\n';
+            try {
+                Toml.parse(bytes);
+                Assert.fail(Arrays.toString(sequence));
+            } catch (IllegalArgumentException e) {
+                assertEquals("Malformed UTF-8 input at byte 4.", e.getMessage());
+            }
+        }
+        // the largest code points of each length are valid
+        String valid = "a = \"\u007f\u07ff\uffff\uDBFF\uDFFF\uD7FF\uE000\"\n";
+        assertEquals(singlePass.parse(valid), Toml.parse(valid.getBytes(StandardCharsets.UTF_8)).getMap(""));
+    }
+
+    @Test
+    public void testMappedFile() throws IOException {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; b.length() < 2 * 1024 * 1024; i++) {
+            b.append("[table").append(i).append("]\nname = \"t\u00e9ble ").append(i).append("\"\nvalues = [1, 2, 3]\n");
+        }
+        Path path = folder.newFile("big.toml").toPath();
+        Files.write(path, b.toString().getBytes(StandardCharsets.UTF_8));
+        Map<String, Object> expected = singlePass.parse(b.toString());
+        assertEquals(expected, Toml.parse(path).getMap(""));
+        assertEquals(expected, Toml.parseMapped(path).getMap(""));
+        assertEquals(expected, Toml.parse(path, simple).getMap(""));
+    }
+
+    @Test
+    public void testCrlfFile() throws IOException {
+        String lf = "title = \"t\"\nm = \"\"\"\nl1\nl2\"\"\"\nl = '''\nl3\nl4'''\n" + //
+                "c = \"\"\"a \\\n  b\"\"\"\nvalues = [\n  1,\n  2\n]\n[t]\nx = 1\n";
+        File file = folder.newFile("crlf.toml");
+        Files.write(file.toPath(), lf.replace("\n", "\r\n").getBytes(StandardCharsets.UTF_8));
+        Map<String, Object> expected = singlePass.parse(lf);
+        assertEquals("l1\nl2", expected.get("m"));
+        assertEquals("l3\nl4", expected.get("l"));
+        assertEquals("a b", expected.get("c"));
+        assertEquals(expected, Toml.parse(file).getMap(""));
+        assertEquals(expected, Toml.parse(file, simple).getMap(""));
+        assertEquals(expected, Toml.parse(file.toPath(), new LazyTomlParser()).getMap(""));
+        assertEquals(expected, simple.parse(lf));
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void testMissingPath() {
+        Toml.parse(Paths.get("does-not-exist.toml"));
+    }
+
+    @Test
+    public void testInfiniteDouble() {
+        for (String toml : Arrays.asList("x = 1e400", "x = -1.5e400")) {
+            try {
+                singlePass.parse(toml);
+                Assert.fail(toml);
+            } catch (IllegalArgumentException e) {
+                assertEquals("Invalid number `" + toml.substring(4) + "` at line 1, column 5.", e.getMessage());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGarbageAfterValue() {
+        Toml.parse("foo = 1 2");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInconsistentArray() {
+        Toml.parse("foo = [1, 2.0]");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOverwriteValueWithArrayOfTables() {
+        Toml.parse("fruit = [1, 2]\n[[fruit]]");
+    }
+
+    private void assertSameResult(String toml) {
+        Map<String, Object> expected = simple.parse(toml);
+        assertEquals(expected, singlePass.parse(toml));
+        // keys must keep their declaration order
+        assertEquals(Arrays.asList(expected.keySet().toArray()), Arrays.asList(singlePass.parse(toml).keySet().toArray()));
+    }
+
+    /**
+     * A Reader returning at most one character per read.
+     */
+    private static class OneCharReader extends FilterReader {
+        OneCharReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read(char[] buffer, int off, int len) throws IOException {
+            return super.read(buffer, off, Math.min(len, 1));
+        }
+    }
+}
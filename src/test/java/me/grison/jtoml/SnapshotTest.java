@@ -0,0 +1,163 @@
+package me.grison.jtoml;
+
+import me.grison.jtoml.impl.Toml;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Map;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for {@link Toml#writeSnapshot(Path, Path)} and {@link Toml#loadSnapshot(Path)}.
+ *
+ * @author Alexandre Grison
+ */
+@SuppressWarnings("unchecked")
+public class SnapshotTest {
+    private static final String TOML = "title = \"snapshot ✓\"\nn = -42\n[a]\npi = 3.5\nok = false\n" + //
+            "longs = [1, 2, 3]\ndoubles = [1.5, 2.5]\nbools = [true, false, true]\nempty = []\n" + //
+            "nested = [ [1, 2], [\"x\"] ]\nwhen = 1979-05-27T07:32:00.5-07:00\nlocal = 1979-05-27T07:32:00\n" + //
+            "day = 1979-05-27\ntime = 07:32:00.25\n[a.b.c]\nd = \"deep\"\n" + //
+            "[[products]]\nname = \"Hammer\"\n[[products]]\nname = \"Nail\"\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path write(String name, String content) throws Exception {
+        return Files.write(folder.getRoot().toPath().resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Toml toml = Toml.parse(TOML);
+        Path snapshot = folder.getRoot().toPath().resolve("config.snapshot");
+        toml.writeSnapshot(snapshot);
+        Toml loaded = Toml.loadSnapshot(snapshot);
+        assertEquals("snapshot ✓", loaded.getString("title"));
+        assertEquals(Long.valueOf(-42), loaded.getLong("n"));
+        assertEquals("deep", loaded.getString(TomlPath.of("a.b.c.d")));
+        assertArrayEquals(new long[]{1, 2, 3}, loaded.getLongArray("a.longs"));
+        assertEquals(toml.getOffsetDateTime("a.when"), loaded.getOffsetDateTime("a.when"));
+        assertEquals(toml.getLocalTime("a.time"), loaded.getLocalTime("a.time"));
+        assertEquals("Nail", ((Map<String, Object>) loaded.getList("products").get(1)).get("name"));
+        assertNull(loaded.get("a.nope"));
+        assertEquals(toml.getMap(""), loaded.getMap(""));
+        assertEquals(toml.getMap("").keySet().toString(), loaded.getMap("").keySet().toString());
+        assertEquals(toml.serialize(), loaded.serialize());
+    }
+
+    @Test
+    public void testSameAsParsed() throws Exception {
+        Toml toml = Toml.parse(new File("src/test/resources/example.toml"));
+        Path snapshot = folder.getRoot().toPath().resolve("example.snapshot");
+        toml.writeSnapshot(snapshot);
+        assertEquals(toml.getMap(""), Toml.loadSnapshot(snapshot).getMap(""));
+    }
+
+    @Test
+    public void testOtherValues() throws Exception {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("Europe/Paris"));
+        calendar.setTimeInMillis(296667120000L);
+        Toml toml = Toml.parse("x = 1");
+        toml.getMap("").put("date", calendar);
+        Path snapshot = folder.getRoot().toPath().resolve("calendar.snapshot");
+        toml.writeSnapshot(snapshot);
+        Calendar loaded = Toml.loadSnapshot(snapshot).getDate("date");
+        assertEquals(calendar.getTimeInMillis(), loaded.getTimeInMillis());
+        assertEquals("Europe/Paris", loaded.getTimeZone().getID());
+
+        toml.getMap("").put("i", 1);
+        try {
+            toml.writeSnapshot(snapshot);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void testReadOnly() throws Exception {
+        Path snapshot = folder.getRoot().toPath().resolve("config.snapshot");
+        Toml.parse(TOML).writeSnapshot(snapshot);
+        Toml loaded = Toml.loadSnapshot(snapshot);
+        assertSame(loaded, loaded.freeze());
+        try {
+            loaded.getMap("a").put("x", 1L);
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+        try {
+            loaded.getList("a.nested").add(null);
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+        try {
+            loaded.parseString("x = 1");
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void testStaleness() throws Exception {
+        Path source = write("config.toml", "port = 80\n");
+        Path snapshot = folder.getRoot().toPath().resolve("config.toml.snapshot");
+        assertNull(Toml.loadSnapshot(snapshot));
+        Toml.parse(source).writeSnapshot(snapshot, source);
+        assertEquals(Long.valueOf(80), Toml.loadSnapshot(snapshot).getLong("port"));
+
+        // same size, other modification time
+        write("config.toml", "port = 81\n");
+        Files.setLastModifiedTime(source, FileTime.fromMillis(Files.getLastModifiedTime(source).toMillis() + 2000));
+        assertNull(Toml.loadSnapshot(snapshot));
+
+        Files.delete(source);
+        assertNull(Toml.loadSnapshot(snapshot));
+    }
+
+    @Test
+    public void testParseWithSnapshot() throws Exception {
+        Path source = write("config.toml", "port = 80\n");
+        Path snapshot = folder.getRoot().toPath().resolve("config.toml.snapshot");
+        assertEquals(Long.valueOf(80), Toml.parseWithSnapshot(source, snapshot).getLong("port"));
+        assertTrue(Files.exists(snapshot));
+        assertEquals(Long.valueOf(80), Toml.loadSnapshot(snapshot).getLong("port"));
+
+        write("config.toml", "port = 8080\n");
+        assertEquals(Long.valueOf(8080), Toml.parseWithSnapshot(source, snapshot).getLong("port"));
+        assertEquals(Long.valueOf(8080), Toml.loadSnapshot(snapshot).getLong("port"));
+
+        // a corrupted snapshot is written again
+        Files.write(snapshot, new byte[64]);
+        assertEquals(Long.valueOf(8080), Toml.parseWithSnapshot(source, snapshot).getLong("port"));
+        assertEquals(Long.valueOf(8080), Toml.loadSnapshot(snapshot).getLong("port"));
+    }
+
+    @Test
+    public void testInvalidSnapshot() throws Exception {
+        Path snapshot = write("config.snapshot", "port = 80\n");
+        try {
+            Toml.loadSnapshot(snapshot);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        Path truncated = folder.getRoot().toPath().resolve("truncated.snapshot");
+        Toml.parse(TOML).writeSnapshot(truncated);
+        byte[] bytes = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        try {
+            Toml.loadSnapshot(truncated);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
@@ -1,10 +1,20 @@
 package me.grison.jtoml;
 
+import me.grison.jtoml.impl.LazyTomlParser;
+import me.grison.jtoml.impl.SimpleTomlParser;
+import me.grison.jtoml.impl.SimpleTomlSerializer;
+import me.grison.jtoml.impl.SinglePassTomlParser;
 import me.grison.jtoml.impl.Toml;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.time.*;
 import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -141,6 +151,166 @@ public class SpecificationsTest {
         Assert.assertEquals(tomlContent, toml.serialize().trim());
     }
 
+    @Test
+    public void testStreamingSerialization() throws Exception {
+        String tomlContent = "[foo]\nstringKey = \"a☺\"\nlongKey = 42\ndoubleKey = 13.37\n" + //
+                "booleanKey = true\nlistKey = [[1, 2, 3], [\"hello\", \"world\"]]\nawesome = true\n\n" +
+                "[foo.bar]\nbazz = \"Hello\"\ndummy = 459\n\n[foo.map]\none = 1\ntwo = 2";
+        Toml toml = Toml.parse(tomlContent);
+        StringWriter writer = new StringWriter();
+        toml.serialize(writer);
+        Assert.assertEquals(toml.serialize(), writer.toString());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        toml.serialize(bytes);
+        Assert.assertEquals(toml.serialize(), new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+        String numbers = "min = -9223372036854775808\nlongs = [-9223372036854775808, -1, 0, 9223372036854775807]\n";
+        writer = new StringWriter();
+        Toml.parse(numbers).serialize(writer);
+        Assert.assertEquals(numbers, writer.toString());
+        Assert.assertEquals(numbers, Toml.parse(numbers).serialize());
+        StringBuilder builder = new StringBuilder();
+        new SimpleTomlSerializer().serialize("foo", toml.getAs("foo", Foo.class), builder);
+        Assert.assertEquals(Toml.serialize("foo", toml.getAs("foo", Foo.class)), builder.toString());
+    }
+
+    @Test
+    public void testDates() {
+        String tomlContent = "odt1 = 1979-05-27T07:32:00Z\nodt2 = 1979-05-27T00:32:00.999999-07:00\n" + //
+                "odt3 = 1979-05-27 07:32:00.5+05:30\nldt = 1979-05-27t07:32:00\nld = 1979-05-27\nlt = 00:32:00.123 # comment\n";
+        for (TomlParser parser : Arrays.asList(new SimpleTomlParser(), new SinglePassTomlParser(), new LazyTomlParser())) {
+            Toml toml = Toml.parse(tomlContent, parser);
+            assertEquals(OffsetDateTime.of(1979, 5, 27, 7, 32, 0, 0, ZoneOffset.UTC), toml.getOffsetDateTime("odt1"));
+            assertEquals(OffsetDateTime.of(1979, 5, 27, 0, 32, 0, 999999000, ZoneOffset.ofHours(-7)), //
+                    toml.getOffsetDateTime("odt2"));
+            assertEquals(OffsetDateTime.of(1979, 5, 27, 7, 32, 0, 500000000, ZoneOffset.ofHoursMinutes(5, 30)), //
+                    toml.getOffsetDateTime(TomlPath.of("odt3")));
+            assertEquals(LocalDateTime.of(1979, 5, 27, 7, 32), toml.getLocalDateTime("ldt"));
+            assertEquals(LocalDate.of(1979, 5, 27), toml.getLocalDate("ld"));
+            assertEquals(LocalTime.of(0, 32, 0, 123000000), toml.getLocalTime("lt"));
+            // Calendar adapter
+            assertEquals(toml.getOffsetDateTime("odt1").toInstant().toEpochMilli(), toml.getDate("odt1").getTimeInMillis());
+            assertEquals(LocalDate.of(1979, 5, 27).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli(), //
+                    toml.getDate("ld").getTimeInMillis());
+        }
+        assertEquals("odt1 = 1979-05-27T07:32:00Z\nodt2 = 1979-05-27T00:32:00.999999-07:00\n" + //
+                "odt3 = 1979-05-27T07:32:00.5+05:30\nldt = 1979-05-27T07:32:00\nld = 1979-05-27\nlt = 00:32:00.123\n", //
+                Toml.parse(tomlContent).serialize());
+    }
+
+    @Test
+    public void testFromCalendar() throws Exception {
+        Calendar calendar = Util.ISO8601.toCalendar("2012-02-29T13:14:15+01:00");
+        String legacy = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ").format(calendar.getTime());
+        legacy = (legacy.substring(0, 22) + ":" + legacy.substring(22)).replace("+00:00", "Z");
+        assertEquals(legacy, Util.ISO8601.fromCalendar(calendar));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLocalTimeIsNotACalendar() {
+        Toml.parse("lt = 07:32:00").getDate("lt");
+    }
+
+    @Test
+    public void testInvalidDate() {
+        for (String date : Arrays.asList("1979-02-30", "1979-05-27T24:00:00Z", "1979-05-27T07:32Z", "1979-05-27T07:32:00+7")) {
+            try {
+                Toml.parse("d = " + date);
+                Assert.fail(date);
+            } catch (IllegalArgumentException e) {
+                assertEquals("Invalid date `" + date + "` at line 1, column 5.", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testCalendarField() {
+        Dated dated = Toml.parse("[d]\nwhen = 1979-05-27T07:32:00Z").getAs("d", Dated.class);
+        assertEquals(OffsetDateTime.of(1979, 5, 27, 7, 32, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli(), //
+                dated.when.getTimeInMillis());
+    }
+
+    @Test
+    public void testSerializationFieldOrder() {
+        Ordered ordered = new Ordered();
+        ordered.first = new Bar();
+        ordered.first.bazz = "nested";
+        ordered.first.dummy = 1L;
+        ordered.second = "value";
+        ordered.third = 3L;
+        String expected = "[o]\nsecond = \"value\"\nthird = 3\n\n[o.first]\nbazz = \"nested\"\ndummy = 1\n";
+        Assert.assertEquals(expected, Toml.serialize("o", ordered));
+        // computed once, then reused
+        Assert.assertEquals(expected, Toml.serialize("o", ordered));
+    }
+
+    @Test
+    public void testSerializeEscapedStrings() {
+        Toml toml = Toml.parse("a = 1");
+        List<String> values = Arrays.asList("a\u0001b", "caf\u00e9 12", "\u00e9abcd", "tab\tquote\"\\", "del\u007f",
+                "\u263a \uD83D\uDE00", "nul\u0000");
+        for (int i = 0; i < values.size(); i++) {
+            toml.getMap("").put("s" + i, values.get(i));
+        }
+        String serialized = toml.serialize();
+        Assert.assertTrue(serialized, serialized.contains("s0 = \"a\\u0001b\""));
+        Assert.assertTrue(serialized, serialized.contains("s1 = \"caf\u00e9 12\""));
+        Toml parsed = Toml.parse(serialized);
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(values.get(i), parsed.getString("s" + i));
+        }
+        assertEquals(toml.getMap(""), Toml.parse(serialized, new SimpleTomlParser()).getMap(""));
+    }
+
+    @Test
+    public void testSerializeQuotedKeys() {
+        String tomlContent = "[servers]\n\"10.0.0.1\" = 5\n\"a b\" = \"x\"\nbare_key-1 = 1\n" + //
+                "[servers.\"host.name\"]\nport = 80\n[[\"a.b\"]]\n\"q\\\"uote\" = 1\n";
+        Toml toml = Toml.parse(tomlContent);
+        assertEquals(Long.valueOf(5), toml.getLong(TomlPath.of("servers", "10.0.0.1")));
+        String serialized = toml.serialize();
+        Assert.assertTrue(serialized, serialized.contains("\"10.0.0.1\" = 5\n\"a b\" = \"x\"\nbare_key-1 = 1\n"));
+        Assert.assertTrue(serialized, serialized.contains("[servers.\"host.name\"]\n"));
+        Assert.assertTrue(serialized, serialized.contains("[[\"a.b\"]]\n"));
+        assertEquals(toml.getMap(""), Toml.parse(serialized).getMap(""));
+    }
+
+    @Test
+    public void testSerializeArrayOfTables() {
+        String tomlContent = "[t]\nx = 1\n[[t.f]]\nn = 1\n[t.f.sub]\ns = \"a\"\n[[t.f]]\nn = 2\n" + //
+                "[[g]]\nname = \"Hammer\"\n";
+        Toml toml = Toml.parse(tomlContent);
+        assertEquals(toml.getMap(""), Toml.parse(toml.serialize()).getMap(""));
+        assertEquals(toml.getMap(""), Toml.parse(Toml.parse(tomlContent, new LazyTomlParser()).serialize()).getMap(""));
+        assertEquals("\n[t]\nx = 1\n\n[[t.f]]\nn = 1\n\n[t.f.sub]\ns = \"a\"\n\n[[t.f]]\nn = 2\n\n[[g]]\n" + //
+                "name = \"Hammer\"\n", Toml.parse(tomlContent).serialize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSerializeTableInArray() {
+        Toml toml = Toml.parse("a = 1");
+        toml.getMap("").put("mixed", Arrays.asList(1L, Collections.singletonMap("x", 1L)));
+        toml.serialize();
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void testStreamingSerializationError() {
+        Toml.parse("a = 1").serialize(new Writer() {
+            @Override
+            public void write(char[] buffer, int off, int len) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void flush() throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+    }
+
     @Test
     public void testNegativeIntegerInTable() {
         Toml t = Toml.parse("[a]\ncd = -3");
@@ -190,6 +360,23 @@ public class SpecificationsTest {
         }
     }
 
+    /**
+     * Class with a date field, see {@link #testCalendarField()}.
+     */
+    public static class Dated {
+        Calendar when;
+    }
+
+    /**
+     * Class whose nested object is declared before its values, see {@link #testSerializationFieldOrder()}.
+     */
+    public static class Ordered {
+        static final String IGNORED = "static";
+        Bar first;
+        String second;
+        Long third;
+    }
+
     public static class Foo {
         String stringKey;
         Long longKey;
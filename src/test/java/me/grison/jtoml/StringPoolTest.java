@@ -0,0 +1,122 @@
+package me.grison.jtoml;
+
+import me.grison.jtoml.impl.BoundedStringPool;
+import me.grison.jtoml.impl.ParseStats;
+import me.grison.jtoml.impl.SimpleTomlParser;
+import me.grison.jtoml.impl.SinglePassTomlParser;
+import me.grison.jtoml.impl.Toml;
+import me.grison.jtoml.impl.TomlMetrics;
+import me.grison.jtoml.impl.TomlStringPool;
+import me.grison.jtoml.impl.WeakStringPool;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for {@link TomlStringPool}s.
+ *
+ * @author Alexandre Grison
+ */
+@SuppressWarnings("unchecked")
+public class StringPoolTest {
+    private static final String TOML = "[a]\nhost = \"localhost\"\nport = 80\ntags = [\"x\", \"y\"]\n" + //
+            "[b]\nhost = \"localhost\"\nport = 81\ntags = [\"x\"]\n" + //
+            "[c]\nhost = \"a host name longer than the maximum length\"\n";
+
+    @Test
+    public void testBoundedPool() {
+        BoundedStringPool pool = new BoundedStringPool(16, 8);
+        String host = pool.intern(new StringBuilder("host"));
+        assertEquals("host", host);
+        assertSame(host, pool.intern(new StringBuilder("host")));
+        assertSame(host, pool.intern("host"));
+        assertEquals(2 * TomlStringPool.sizeOf(4), pool.getBytesSaved());
+        // too long to be pooled
+        assertNotSame(pool.intern(new StringBuilder("localhost")), pool.intern(new StringBuilder("localhost")));
+        assertEquals(2 * TomlStringPool.sizeOf(4), pool.getBytesSaved());
+    }
+
+    @Test
+    public void testBoundedPoolReplacesSlots() {
+        BoundedStringPool pool = new BoundedStringPool(1, 8);
+        String a = pool.intern("a");
+        pool.intern("b");
+        assertNotSame(a, pool.intern(new String("a")));
+        assertEquals(0, pool.getBytesSaved());
+    }
+
+    @Test
+    public void testWeakPool() {
+        WeakStringPool pool = new WeakStringPool(2, 8);
+        String host = pool.intern(new StringBuilder("host"));
+        assertSame(host, pool.intern(new StringBuilder("host")));
+        assertEquals(TomlStringPool.sizeOf(4), pool.getBytesSaved());
+        pool.intern("port");
+        // full
+        String other = pool.intern("other");
+        assertNotSame(other, pool.intern(new String("other")));
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    public void testSinglePassParser() {
+        assertSharesStrings(new SinglePassTomlParser(() -> new BoundedStringPool(64, 16)));
+    }
+
+    @Test
+    public void testSimpleParser() {
+        assertSharesStrings(new SimpleTomlParser(() -> new BoundedStringPool(64, 16)));
+    }
+
+    private static void assertSharesStrings(TomlParser parser) {
+        Toml toml = Toml.parse(TOML, parser);
+        assertEquals(Toml.parse(TOML).getMap(""), toml.getMap(""));
+        assertSame(toml.getString("a.host"), toml.getString("b.host"));
+        assertSame(toml.getList("a.tags").get(0), toml.getList("b.tags").get(0));
+        assertSame(key(toml.getMap("a"), 0), key(toml.getMap("b"), 0));
+        assertNotSame(toml.getString("c.host"), Toml.parse(TOML, parser).getString("c.host"));
+    }
+
+    private static String key(Map<String, Object> table, int index) {
+        return new ArrayList<>(table.keySet()).get(index);
+    }
+
+    @Test
+    public void testSharedPool() {
+        WeakStringPool shared = new WeakStringPool(1000, 16);
+        TomlParser parser = new SinglePassTomlParser(() -> new BoundedStringPool(64, 16, shared));
+        Toml first = Toml.parse(TOML, parser), second = Toml.parse(TOML, parser);
+        assertSame(first.getString("a.host"), second.getString("b.host"));
+        assertSame(key(first.getMap("a"), 1), key(second.getMap("b"), 1));
+        assertTrue(shared.getBytesSaved() > 0);
+    }
+
+    @Test
+    public void testBytesSavedMetric() {
+        final List<ParseStats> parsed = new ArrayList<>();
+        Toml.setMetrics(new TomlMetrics() {
+            @Override
+            public void parsed(ParseStats stats) {
+                parsed.add(stats);
+            }
+        });
+        try {
+            Toml.parse(TOML, new SinglePassTomlParser(() -> new BoundedStringPool(64, 16)));
+            Toml.parse(TOML, new SinglePassTomlParser());
+        } finally {
+            Toml.setMetrics(null);
+        }
+        // in [b], the host, port and tags keys and the localhost and x values, then the host key of [c]
+        long expected = 0;
+        for (String s : Arrays.asList("host", "port", "tags", "localhost", "x", "host")) {
+            expected += TomlStringPool.sizeOf(s.length());
+        }
+        assertEquals(expected, parsed.get(0).getBytesSaved());
+        assertEquals(-1, parsed.get(1).getBytesSaved());
+    }
+}
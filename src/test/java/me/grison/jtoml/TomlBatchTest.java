@@ -0,0 +1,77 @@
+package me.grison.jtoml;
+
+import me.grison.jtoml.impl.Toml;
+import me.grison.jtoml.impl.TomlBatch;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for {@link Toml#parseAll(java.util.Collection, java.util.concurrent.Executor)}.
+ *
+ * @author Alexandre Grison
+ */
+public class TomlBatchTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path write(String name, String content) throws Exception {
+        Path path = folder.getRoot().toPath().resolve(name);
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+    @Test
+    public void testParseAll() throws Exception {
+        List<Path> paths = new ArrayList<>();
+        StringBuilder large = new StringBuilder("name = \"large\"\n");
+        for (int i = 0; i < 1000; i++) {
+            large.append("key").append(i).append(" = \"vàlue ").append(i).append("\"\n");
+        }
+        paths.add(write("large.toml", large.toString()));
+        for (int i = 0; i < 100; i++) {
+            paths.add(write("tenant" + i + ".toml", "name = \"tenant " + i + "\"\n[limits]\nmax = " + i + "\n"));
+        }
+        paths.add(write("empty.toml", ""));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            TomlBatch batch = Toml.parseAll(paths, executor);
+            assertFalse(batch.hasErrors());
+            assertEquals(paths, new ArrayList<>(batch.documents().keySet()));
+            for (int i = 0; i < 100; i++) {
+                Toml toml = batch.documents().get(paths.get(i + 1));
+                assertEquals("tenant " + i, toml.getString("name"));
+                assertEquals(Long.valueOf(i), toml.getLong("limits.max"));
+            }
+            assertEquals("vàlue 999", batch.documents().get(paths.get(0)).getString("key999"));
+            assertTrue(batch.documents().get(paths.get(101)).getMap("").isEmpty());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testErrorsDoNotAbortTheBatch() throws Exception {
+        Path valid = write("valid.toml", "a = 1");
+        Path invalid = write("invalid.toml", "a = ?");
+        Path missing = folder.getRoot().toPath().resolve("missing.toml");
+        TomlBatch batch = Toml.parseAll(Arrays.asList(invalid, valid, missing), Runnable::run);
+        assertTrue(batch.hasErrors());
+        assertEquals(Long.valueOf(1), batch.documents().get(valid).getLong("a"));
+        assertEquals(Arrays.asList(invalid, missing), new ArrayList<>(batch.errors().keySet()));
+        assertTrue(batch.errors().get(invalid) instanceof IllegalArgumentException);
+        assertTrue(batch.errors().get(missing) instanceof UncheckedIOException);
+    }
+}
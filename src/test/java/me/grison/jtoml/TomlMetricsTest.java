@@ -0,0 +1,141 @@
+package me.grison.jtoml;
+
+import me.grison.jtoml.impl.JmxTomlMetrics;
+import me.grison.jtoml.impl.ParseStats;
+import me.grison.jtoml.impl.SimpleTomlParser;
+import me.grison.jtoml.impl.SinglePassTomlParser;
+import me.grison.jtoml.impl.Toml;
+import me.grison.jtoml.impl.TomlMetrics;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for {@link TomlMetrics}.
+ *
+ * @author Alexandre Grison
+ */
+public class TomlMetricsTest {
+    private static final String TOML = "title = \"metrics\"\n\n[owner]\nname = \"Tom\"\n\n[database]\nports = [ 8001,\n  8002 ]\n";
+
+    @After
+    public void disableMetrics() {
+        Toml.setMetrics(null);
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        assertSame(TomlMetrics.NONE, Toml.getMetrics());
+        Toml.parse(TOML);
+    }
+
+    @Test
+    public void testSinglePassParse() {
+        final List<ParseStats> parsed = new ArrayList<>();
+        Toml.setMetrics(new TomlMetrics() {
+            @Override
+            public void parsed(ParseStats stats) {
+                parsed.add(stats);
+            }
+        });
+        Toml.parse(TOML, new SinglePassTomlParser());
+        assertEquals(1, parsed.size());
+        ParseStats stats = parsed.get(0);
+        assertEquals(SinglePassTomlParser.class.getName(), stats.getParser());
+        assertEquals(TOML.length(), stats.getCharacters());
+        assertEquals(8, stats.getLines());
+        assertEquals(2, stats.getTables());
+        assertEquals(3, stats.getKeys());
+        assertTrue(stats.getNanos() > 0);
+    }
+
+    @Test
+    public void testSimpleParsePhases() {
+        final List<ParseStats> parsed = new ArrayList<>();
+        Toml.setMetrics(new TomlMetrics() {
+            @Override
+            public void parsed(ParseStats stats) {
+                parsed.add(stats);
+            }
+        });
+        Toml.parse(TOML, new SimpleTomlParser());
+        ParseStats stats = parsed.get(0);
+        assertArrayEquals(new Object[]{"prepare", "match"}, stats.getPhases().keySet().toArray());
+        assertEquals(TOML.length(), stats.getCharacters());
+        assertEquals(8, stats.getLines());
+        assertEquals(2, stats.getTables());
+        assertEquals(3, stats.getKeys());
+    }
+
+    @Test
+    public void testNestedParse() {
+        final List<ParseStats> parsed = new ArrayList<>();
+        final List<ParseStats> failed = new ArrayList<>();
+        Toml.setMetrics(new TomlMetrics() {
+            @Override
+            public void parsed(ParseStats stats) {
+                parsed.add(stats);
+            }
+
+            @Override
+            public void parseFailed(ParseStats stats, RuntimeException e) {
+                failed.add(stats);
+            }
+        });
+        // a parse started by the pool supplier, while the outer parse is recorded
+        Toml.parse(TOML, new SinglePassTomlParser(() -> {
+            Toml.parse("a = 1", new SinglePassTomlParser());
+            return null;
+        }));
+        assertEquals(2, parsed.size());
+        assertEquals(5, parsed.get(0).getCharacters());
+        assertEquals(TOML.length(), parsed.get(1).getCharacters());
+        assertEquals(3, parsed.get(1).getKeys());
+        try {
+            Toml.parse("a = ", new SinglePassTomlParser());
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(1, failed.size());
+        assertTrue(failed.get(0).getNanos() > 0);
+    }
+
+    @Test
+    public void testJmxMetrics() throws Exception {
+        JmxTomlMetrics metrics = new JmxTomlMetrics();
+        Toml.setMetrics(metrics);
+        Toml toml = Toml.parse(TOML, new SimpleTomlParser());
+        try {
+            Toml.parse("a = ", new SinglePassTomlParser());
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals("Tom", toml.getString("owner.name"));
+        assertNull(toml.getString("owner.age"));
+
+        assertEquals(1, metrics.getParseCount());
+        assertEquals(1, metrics.getParseErrors());
+        assertEquals(2, metrics.getLookupCount());
+        assertEquals(1, metrics.getLookupMisses());
+        assertEquals(3, metrics.getKeys());
+        assertTrue(metrics.getPhaseNanos().containsKey("match"));
+
+        ObjectName name = metrics.register();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertEquals(1L, server.getAttribute(name, "ParseCount"));
+            assertEquals(2L, server.getAttribute(name, "LookupCount"));
+            server.invoke(name, "reset", null, null);
+            assertEquals(0, metrics.getParseCount());
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
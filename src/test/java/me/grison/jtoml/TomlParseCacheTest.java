@@ -0,0 +1,70 @@
+package me.grison.jtoml;
+
+import me.grison.jtoml.impl.Toml;
+import me.grison.jtoml.impl.TomlParseCache;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for {@link TomlParseCache}.
+ *
+ * @author Alexandre Grison
+ */
+public class TomlParseCacheTest {
+    @Test
+    public void testHitsAndMisses() {
+        TomlParseCache cache = new TomlParseCache(1024);
+        Toml toml = cache.parse("a = 1");
+        assertSame(toml, cache.parse(new String("a = 1")));
+        assertNotSame(toml, cache.parse("a = 2"));
+        assertEquals(Long.valueOf(1), toml.getLong("a"));
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(2, cache.size());
+        assertEquals(20, cache.bytes());
+        try {
+            toml.getMap("").put("b", 2L);
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        TomlParseCache cache = new TomlParseCache(30);
+        Toml a = cache.parse("a = 1");
+        cache.parse("b = 1");
+        cache.parse("c = 1");
+        // a is used again, b is the least recently used
+        assertSame(a, cache.parse("a = 1"));
+        cache.parse("dd = 1");
+        assertEquals(2, cache.evictions());
+        assertEquals(2, cache.size());
+        assertEquals(22, cache.bytes());
+        assertSame(a, cache.parse("a = 1"));
+        assertEquals(2, cache.hits());
+    }
+
+    @Test
+    public void testLargeStringsAreNotCached() {
+        TomlParseCache cache = new TomlParseCache(8);
+        assertEquals(Long.valueOf(1), cache.parse("a = 1").getLong("a"));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.evictions());
+    }
+
+    @Test
+    public void testInvalidStringsAreNotCached() {
+        TomlParseCache cache = new TomlParseCache(1024);
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.parse("a = ?");
+                fail();
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+        assertEquals(2, cache.misses());
+        assertEquals(0, cache.size());
+    }
+}
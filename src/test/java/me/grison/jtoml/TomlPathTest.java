@@ -0,0 +1,112 @@
+package me.grison.jtoml;
+
+import me.grison.jtoml.impl.Toml;
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for {@link TomlPath} lookups.
+ *
+ * @author Alexandre Grison
+ */
+public class TomlPathTest {
+    @Test
+    public void testOf() {
+        TomlPath path = TomlPath.of("foo.bar.bazz");
+        assertEquals(3, path.size());
+        assertEquals("bar", path.get(1));
+        assertEquals("foo.bar.bazz", path.toString());
+        assertEquals(path, TomlPath.of("foo", "bar", "bazz"));
+        assertEquals(path, TomlPath.of("foo.bar").resolve("bazz"));
+        assertSame(TomlPath.ROOT, TomlPath.of(""));
+        assertEquals(0, TomlPath.of((String) null).size());
+    }
+
+    @Test
+    public void testLookup() {
+        Toml toml = Toml.parse("[features.x]\nenabled = true\nname = \"x\"\n[servers.\"10.0.0.1\"]\nport = 8080");
+        TomlPath enabled = TomlPath.of("features.x.enabled");
+        assertTrue(toml.getBoolean(enabled));
+        assertEquals("x", toml.getString(TomlPath.of("features.x").resolve("name")));
+        assertEquals(Long.valueOf(8080), toml.getLong(TomlPath.of("servers", "10.0.0.1", "port")));
+        assertEquals("x", toml.getMap(TomlPath.of("features.x")).get("name"));
+        assertNull(toml.get(TomlPath.of("features.x.enabled.nope")));
+        assertNull(toml.get(TomlPath.of("nope.nope")));
+        assertNull(toml.findContext(toml.getMap(""), "features.x.name"));
+        assertEquals(toml.getMap("features.x"), toml.findContext(toml.getMap(""), "features.x"));
+    }
+
+    @Test
+    public void testManyKeys() {
+        Toml toml = Toml.parse("[a]\nb = 1");
+        // more distinct keys than cached paths, replacing each other in the cache
+        for (int i = 0; i < 5000; i++) {
+            assertNull(toml.get("a.k" + i));
+            assertEquals(Long.valueOf(1), toml.getLong("a.b"));
+        }
+    }
+
+    @Test
+    public void testDefaultLookup() {
+        Getter getter = getter(Toml.parse("[features.x]\nenabled = true\nports = [1, 2]\n[servers.\"10.0.0.1\"]\nport = 5"));
+        assertTrue(getter.getBoolean(TomlPath.of("features", "x", "enabled")));
+        assertArrayEquals(new long[]{1, 2}, getter.getLongArray(TomlPath.of("features.x.ports")));
+        assertEquals(Long.valueOf(5), getter.getLong(TomlPath.of("servers", "10.0.0.1", "port")));
+        assertEquals(Long.valueOf(5), getter.getMap(TomlPath.of("servers", "10.0.0.1")).get("port"));
+        assertNull(getter.getLong(TomlPath.of("servers", "10.0.0.1", "port", "nope")));
+        assertNull(getter.get(TomlPath.of("servers", "10.0.0.2")));
+    }
+
+    /**
+     * Returns a getter implementing only the lookups by dotted key, through the given Toml.
+     */
+    private static Getter getter(Toml toml) {
+        return new Getter() {
+            public Object get(String key) {
+                return toml.get(key);
+            }
+
+            public String getString(String key) {
+                return toml.getString(key);
+            }
+
+            public Long getLong(String key) {
+                return toml.getLong(key);
+            }
+
+            public Double getDouble(String key) {
+                return toml.getDouble(key);
+            }
+
+            public Calendar getDate(String key) {
+                return toml.getDate(key);
+            }
+
+            public List<Object> getList(String key) {
+                return toml.getList(key);
+            }
+
+            public Boolean getBoolean(String key) {
+                return toml.getBoolean(key);
+            }
+
+            public Map<String, Object> getMap(String key) {
+                return toml.getMap(key);
+            }
+
+            public <T> T getAs(String key, Class<T> clazz) {
+                return toml.getAs(key, clazz);
+            }
+        };
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongType() {
+        Toml.parse("a = 1").getString(TomlPath.of("a"));
+    }
+}
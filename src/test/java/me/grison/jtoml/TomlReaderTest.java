@@ -0,0 +1,95 @@
+package me.grison.jtoml;
+
+import me.grison.jtoml.impl.TomlReader;
+import me.grison.jtoml.impl.TomlReader.Event;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for the pull based {@link TomlReader}.
+ *
+ * @author Alexandre Grison
+ */
+public class TomlReaderTest {
+    @Test
+    public void testEvents() {
+        TomlReader reader = new TomlReader("title = \"TOML\"\n[a.b]\nn = -42\npi = 3.5 # comment\n" + //
+                "ok = true\ndata = [ [1], [] ]\n[[c]]\nd = 1979-05-27T07:32:00Z");
+        List<Event> events = new ArrayList<>();
+        for (Event e = reader.next(); e != Event.END_DOCUMENT; e = reader.next()) {
+            events.add(e);
+        }
+        assertEquals(Arrays.asList(Event.KEY, Event.VALUE_STRING, Event.TABLE_START, Event.KEY, Event.VALUE_LONG, //
+                Event.KEY, Event.VALUE_DOUBLE, Event.KEY, Event.VALUE_BOOLEAN, Event.KEY, Event.ARRAY_START, //
+                Event.ARRAY_START, Event.VALUE_LONG, Event.ARRAY_END, Event.ARRAY_START, Event.ARRAY_END, //
+                Event.ARRAY_END, Event.ARRAY_TABLE_START, Event.KEY, Event.VALUE_DATE), events);
+        assertEquals(Event.END_DOCUMENT, reader.next());
+    }
+
+    @Test
+    public void testValues() {
+        TomlReader reader = new TomlReader(new StringReader("[ a . \"b.c\" ]\nn = -9_223_372_036_854_775_808\n" + //
+                "x = 1.5e3\ny = 0.1\nok = false\ns = 'lit'"));
+        assertEquals(Event.TABLE_START, reader.next());
+        assertEquals(Arrays.asList("a", "b.c"), reader.tablePath());
+        assertEquals(Event.KEY, reader.next());
+        assertEquals("n", reader.stringValue());
+        assertEquals(Event.VALUE_LONG, reader.next());
+        assertEquals(Long.MIN_VALUE, reader.longValue());
+        reader.next();
+        assertEquals(Event.VALUE_DOUBLE, reader.next());
+        assertEquals(1500d, reader.doubleValue(), 0d);
+        reader.next();
+        reader.next();
+        assertEquals(0.1d, reader.doubleValue(), 0d);
+        reader.next();
+        assertEquals(Event.VALUE_BOOLEAN, reader.next());
+        assertFalse(reader.booleanValue());
+        reader.next();
+        assertEquals(Event.VALUE_STRING, reader.next());
+        assertEquals("lit", reader.stringValue());
+    }
+
+    @Test
+    public void testSkipValue() {
+        TomlReader reader = new TomlReader("big = [ [1, 2], [\"x\", \"y\"] ]\nsmall = 1\n");
+        assertEquals(Event.KEY, reader.next());
+        reader.skipValue();
+        assertEquals(Event.KEY, reader.next());
+        assertEquals("small", reader.stringValue());
+        assertEquals(2, reader.line());
+        assertEquals(1, reader.column());
+        reader.skipValue();
+        assertEquals(Event.END_DOCUMENT, reader.next());
+    }
+
+    @Test
+    public void testDateTimeValues() {
+        TomlReader reader = new TomlReader("a = 1979-05-27 07:32:00Z\nb = [ 07:32:00, 00:00:01.5 ]");
+        reader.next();
+        assertEquals(Event.VALUE_DATE, reader.next());
+        assertEquals(OffsetDateTime.of(1979, 5, 27, 7, 32, 0, 0, ZoneOffset.UTC), reader.dateTimeValue());
+        reader.next();
+        reader.next();
+        assertEquals(Event.VALUE_DATE, reader.next());
+        assertEquals(LocalTime.of(7, 32), reader.dateTimeValue());
+        assertEquals(Event.VALUE_DATE, reader.next());
+        assertEquals(LocalTime.of(0, 0, 1, 500000000), reader.dateTimeValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLongOverflow() {
+        TomlReader reader = new TomlReader("n = 9223372036854775808");
+        reader.next();
+        reader.next();
+    }
+}